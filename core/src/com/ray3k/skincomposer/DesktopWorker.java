@@ -44,6 +44,7 @@ public interface DesktopWorker {
     List<File> openMultipleDialog(String title, String defaultPath, String[] filterPatterns, String filterDescription);
     File openDialog(String title, String defaultPath, String[] filterPatterns, String filterDescription);
     File saveDialog(String title, String defaultPath, String[] filterPatterns, String filterDescription);
+    File selectFolderDialog(String title, String defaultPath);
     char getKeyName(int keyCode);
     void writeFont(FreeTypeBitmapFontData data, Array<PixmapPacker.Page> pages, FileHandle target);
 }
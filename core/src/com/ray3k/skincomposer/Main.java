@@ -54,6 +54,8 @@ import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.ray3k.skincomposer.data.AtlasData;
 import com.ray3k.skincomposer.data.JsonData;
 import com.ray3k.skincomposer.data.ProjectData;
+import com.ray3k.skincomposer.data.ProjectJournal;
+import com.ray3k.skincomposer.data.ProjectLoader;
 import com.ray3k.skincomposer.dialog.DialogFactory;
 import com.ray3k.skincomposer.dialog.DialogListener;
 import com.ray3k.skincomposer.utils.Utils;
@@ -93,6 +95,8 @@ public class Main extends ApplicationAdapter {
     public static RootTable rootTable;
     public static IbeamListener ibeamListener;
     public static MainListener mainListener;
+    public static ProjectJournal projectJournal;
+    public static ProjectLoader projectLoader;
     public static HandListener handListener;
     public static ScrollFocusListener scrollFocusListener;
     public static ResizeArrowListener verticalResizeArrowListener;
@@ -127,11 +131,11 @@ public class Main extends ApplicationAdapter {
         resizeUiScale(projectData.getUiScale());
     }
     
-    private void initDefaults() {
-        if (Utils.isMac()) System.setProperty("java.awt.headless", "true");
-        
-        skin.getFont("font").getData().markupEnabled = true;
-        
+    /**
+     * Copies the packer settings, the white pixel and the preview fonts to the
+     * app folder if they don't exist yet.
+     */
+    public static void copyDefaultFiles() {
         //copy defaults.json to temp folder if it doesn't exist
         var fileHandle = appFolder.child("texturepacker/atlas-export-settings.json");
         if (!fileHandle.exists()) {
@@ -170,13 +174,23 @@ public class Main extends ApplicationAdapter {
         if (!fileHandle.exists()) {
             Gdx.files.internal("preview fonts/SourceSansPro-Regular.ttf").copyTo(fileHandle);
         }
+    }
+    
+    private void initDefaults() {
+        if (Utils.isMac()) System.setProperty("java.awt.headless", "true");
+        
+        skin.getFont("font").getData().markupEnabled = true;
+        
+        copyDefaultFiles();
         
         ibeamListener = new IbeamListener();
         
         dialogFactory = new DialogFactory();
+        projectJournal = new ProjectJournal();
+        projectLoader = new ProjectLoader();
         projectData = new ProjectData();
         projectData.randomizeId();
-        projectData.setMaxUndos(30);
+        projectData.setUndoMemory(16);
         atlasData = projectData.getAtlasData();
         jsonData = projectData.getJsonData();
         
@@ -265,6 +279,7 @@ public class Main extends ApplicationAdapter {
 
     @Override
     public void dispose() {
+        projectJournal.dispose();
         stage.dispose();
         skin.dispose();
     }
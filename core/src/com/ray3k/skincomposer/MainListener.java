@@ -37,6 +37,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.SelectBox;
 import com.badlogic.gdx.scenes.scene2d.ui.TextField;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.RootTable.RootTableEnum;
 import com.ray3k.skincomposer.RootTable.RootTableListener;
 import com.ray3k.skincomposer.UndoableManager.*;
 import com.ray3k.skincomposer.data.*;
@@ -56,9 +57,13 @@ import com.ray3k.skincomposer.utils.Utils;
 import static com.ray3k.skincomposer.Main.*;
 
 import java.io.File;
-import java.util.Locale;
+import java.util.EnumSet;
 
 public class MainListener extends RootTableListener {
+    private static final EnumSet<RootTableEnum> RESOURCE_EVENTS = EnumSet.of(RootTableEnum.NEW, RootTableEnum.OPEN,
+            RootTableEnum.SAVE, RootTableEnum.SAVE_AS, RootTableEnum.IMPORT, RootTableEnum.EXPORT,
+            RootTableEnum.SETTINGS, RootTableEnum.COLORS, RootTableEnum.FONTS, RootTableEnum.DRAWABLES,
+            RootTableEnum.REFRESH_ATLAS, RootTableEnum.SCENE_COMPOSER);
     private WelcomeDialogListener welcomeListener;
     private DialogListener dialogListener;
     
@@ -85,6 +90,12 @@ public class MainListener extends RootTableListener {
     
     @Override
     public void rootEvent(RootTable.RootTableEvent event) {
+        //actions that modify resources wait until the project has finished loading them
+        if (projectLoader.isLoading() && RESOURCE_EVENTS.contains(event.rootTableEnum)) {
+            projectLoader.whenLoaded(() -> rootEvent(event));
+            return;
+        }
+        
         switch (event.rootTableEnum) {
             case NEW:
                 newFile();
@@ -277,6 +288,7 @@ public class MainListener extends RootTableListener {
                                 });
                             });
                         } else if (selection == 1) {
+                            projectJournal.discard();
                             projectData.clear();
                         }
                     }, dialogListener);
@@ -302,37 +314,13 @@ public class MainListener extends RootTableListener {
 
             String[] filterPatterns = null;
             if (!Utils.isMac()) {
-                filterPatterns = new String[] {"*.scmp"};
+                filterPatterns = new String[] {"*.scmp", "*.scmpb", "*.scmz"};
             }
 
             File file = desktopWorker.openDialog("Open Skin Composer file...", defaultPath, filterPatterns, "Skin Composer files");
             if (file != null) {
                 Gdx.app.postRunnable(() -> {
-                    FileHandle fileHandle = new FileHandle(file);
-                    projectData.load(fileHandle);
-                    Array<DrawableData> drawableErrors = projectData.verifyDrawablePaths();
-                    Array<FontData> fontErrors = projectData.verifyFontPaths();
-                    var freeTypeFontErrors = projectData.verifyFreeTypeFontPaths();
-                    if (drawableErrors.size > 0 || fontErrors.size > 0 || freeTypeFontErrors.size > 0) {
-                        dialogFactory.showDialogPathErrors(drawableErrors, fontErrors, freeTypeFontErrors);
-                    }
-                    
-                    if (projectData.checkForInvalidMinWidthHeight()) {
-                        projectData.setLoadedVersion(Main.VERSION);
-                        dialogFactory.yesNoDialog("Fix minWidth and minHeight errors?", "Old project (< v.30) detected.\nResolve minWidth and minHeight errors?", new DialogFactory.ConfirmationListener() {
-                            @Override
-                            public void selected(int selection) {
-                                if (selection == 0) {
-                                    projectData.fixInvalidMinWidthHeight();
-                                    refreshTextureAtlas();
-                                }
-                            }
-                        }, null);
-                    }
-                    
-                    projectData.setLastOpenSavePath(fileHandle.parent().path() + "/");
-                    rootTable.populate();
-                    rootTable.updateRecentFiles();
+                    loadProject(new FileHandle(file));
                 });
             }
         };
@@ -345,6 +333,7 @@ public class MainListener extends RootTableListener {
                         if (selection == 0) {
                             saveFile(runnable);
                         } else if (selection == 1) {
+                            projectJournal.discard();
                             dialogFactory.showDialogLoading(runnable);
                         }
                     }, dialogListener);
@@ -369,30 +358,7 @@ public class MainListener extends RootTableListener {
         Runnable runnable = () -> {
             if (fileHandle != null) {
                 Gdx.app.postRunnable(() -> {
-                    projectData.load(fileHandle);
-                    Array<DrawableData> drawableErrors = projectData.verifyDrawablePaths();
-                    Array<FontData> fontErrors = projectData.verifyFontPaths();
-                    var freeTypeFontErrors = projectData.verifyFreeTypeFontPaths();
-                    if (drawableErrors.size > 0 || fontErrors.size > 0 || freeTypeFontErrors.size > 0) {
-                        dialogFactory.showDialogPathErrors(drawableErrors, fontErrors, freeTypeFontErrors);
-                    }
-    
-                    if (projectData.checkForInvalidMinWidthHeight()) {
-                        projectData.setLoadedVersion(Main.VERSION);
-                        dialogFactory.yesNoDialog("Fix minWidth and minHeight errors?", "Old project (< v.30) detected.\nResolve minWidth and minHeight errors?", new DialogFactory.ConfirmationListener() {
-                            @Override
-                            public void selected(int selection) {
-                                if (selection == 0) {
-                                    projectData.fixInvalidMinWidthHeight();
-                                    refreshTextureAtlas();
-                                }
-                            }
-                        }, null);
-                    }
-                    
-                    projectData.setLastOpenSavePath(fileHandle.parent().path() + "/");
-                    rootTable.populate();
-                    rootTable.updateRecentFiles();
+                    loadProject(fileHandle);
                 });
             }
         };
@@ -405,6 +371,7 @@ public class MainListener extends RootTableListener {
                         if (selection == 0) {
                             saveFile(runnable);
                         } else if (selection == 1) {
+                            projectJournal.discard();
                             dialogFactory.showDialogLoading(runnable);
                         }
                     }, dialogListener);
@@ -425,6 +392,50 @@ public class MainListener extends RootTableListener {
         }
     }
     
+    /**
+     * Loads the project file. Missing resources are reported once they are
+     * verified in the background. If autosaved changes newer than the file
+     * exist, the user is offered to recover them.
+     * @param fileHandle 
+     */
+    public void loadProject(FileHandle fileHandle) {
+        if (projectLoader.isLoading()) {
+            projectLoader.whenLoaded(() -> loadProject(fileHandle));
+        } else if (ProjectJournal.hasRecoveryData(fileHandle)) {
+            dialogFactory.yesNoDialog("Recover autosave?", "Unsaved changes to this project were autosaved.\nDo you want to recover them?", selection -> {
+                if (selection == 0) {
+                    projectJournal.recover(fileHandle);
+                } else {
+                    projectData.load(fileHandle);
+                    projectJournal.discard();
+                }
+                finishLoadingProject(fileHandle);
+            }, null);
+        } else {
+            projectData.load(fileHandle);
+            finishLoadingProject(fileHandle);
+        }
+    }
+    
+    private void finishLoadingProject(FileHandle fileHandle) {
+        if (projectData.checkForInvalidMinWidthHeight()) {
+            projectData.setLoadedVersion(Main.VERSION);
+            dialogFactory.yesNoDialog("Fix minWidth and minHeight errors?", "Old project (< v.30) detected.\nResolve minWidth and minHeight errors?", new DialogFactory.ConfirmationListener() {
+                @Override
+                public void selected(int selection) {
+                    if (selection == 0) {
+                        projectData.fixInvalidMinWidthHeight();
+                        projectLoader.whenLoaded(() -> refreshTextureAtlas());
+                    }
+                }
+            }, null);
+        }
+        
+        projectData.setLastOpenSavePath(fileHandle.parent().path() + "/");
+        rootTable.populate();
+        rootTable.updateRecentFiles();
+    }
+    
     public void saveFile(Runnable runnable) {
         if (projectData.getSaveFile() != null && projectData.getSaveFile().type() != Files.FileType.Local) {
             
@@ -445,14 +456,14 @@ public class MainListener extends RootTableListener {
 
             String[] filterPatterns = null;
             if (!Utils.isMac()) {
-                filterPatterns = new String[] {"*.scmp"};
+                filterPatterns = new String[] {"*.scmp", "*.scmpb", "*.scmz"};
             }
 
             File file = desktopWorker.saveDialog("Save Skin Composer file as...", defaultPath, filterPatterns, "Skin Composer files");
             if (file != null) {
                 Gdx.app.postRunnable(() -> {
                     FileHandle fileHandle = new FileHandle(file);
-                    if (fileHandle.extension() == null || !fileHandle.extension().equals(".scmp")) {
+                    if (!ProjectData.isProjectFile(fileHandle)) {
                         fileHandle = fileHandle.sibling(fileHandle.nameWithoutExtension() + ".scmp");
                     }
                     projectData.save(fileHandle);
@@ -509,6 +520,12 @@ public class MainListener extends RootTableListener {
     @Override
     public void stylePropertyChanged(StyleProperty styleProperty,
             Actor styleActor) {
+        //the resource dialogs produce the atlas, so they wait until the project has finished loading
+        if (projectLoader.isLoading() && (styleProperty.type == Drawable.class || styleProperty.type == Color.class || styleProperty.type == BitmapFont.class)) {
+            projectLoader.whenLoaded(() -> stylePropertyChanged(styleProperty, styleActor));
+            return;
+        }
+        
         if (styleProperty.type == Drawable.class) {
             dialogFactory.showDialogDrawables(styleProperty, dialogListener);
         } else if (styleProperty.type == Color.class) {
@@ -619,6 +636,12 @@ public class MainListener extends RootTableListener {
     @Override
     public void customPropertyValueChanged(CustomProperty customProperty,
             Actor styleActor) {
+        var type = customProperty.getType();
+        if (projectLoader.isLoading() && (type == PropertyType.DRAWABLE || type == PropertyType.COLOR || type == PropertyType.FONT)) {
+            projectLoader.whenLoaded(() -> customPropertyValueChanged(customProperty, styleActor));
+            return;
+        }
+        
         if (null != customProperty.getType()) switch (customProperty.getType()) {
             case DRAWABLE:
                 dialogFactory.showDialogDrawables(customProperty, dialogListener);
@@ -686,7 +709,7 @@ public class MainListener extends RootTableListener {
         var validArgument = false;
         if (args != null && args.length > 0) {
             var fileHandle = Gdx.files.absolute(args[0]);
-            if (fileHandle.exists() && fileHandle.extension().toLowerCase(Locale.ROOT).equals("scmp")) {
+            if (fileHandle.exists() && ProjectData.isProjectFile(fileHandle)) {
                 validArgument = true;
                 openFile(fileHandle);
             }
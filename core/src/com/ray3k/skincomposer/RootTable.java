@@ -54,6 +54,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.badlogic.gdx.utils.reflect.Field;
@@ -71,7 +72,6 @@ import com.ray3k.stripe.StripeMenuBar.KeyboardShortcut;
 import com.ray3k.tenpatch.TenPatchDrawable;
 
 import java.util.Arrays;
-import java.util.Locale;
 import java.util.stream.IntStream;
 
 import static com.ray3k.skincomposer.Main.*;
@@ -105,6 +105,9 @@ public class RootTable extends Table {
             + "\n\n\n" + PARAGRAPH_SAMPLE + "\n\n\n" + PARAGRAPH_SAMPLE + "\n\n\n"
             + PARAGRAPH_SAMPLE;
     private final Array<BitmapFont> previewFonts;
+    private final IdentityMap<StyleData, Object> previewStyles;
+    private int previewStylesChangeCount;
+    private final IdentityMap<FontData, BitmapFont> previewFontCache;
     private TextButton undoButton;
     private TextButton redoButton;
     private StripeMenu recentFilesMenu;
@@ -114,6 +117,8 @@ public class RootTable extends Table {
     private Button styleDeleteButton;
     private Button styleRenameButton;
     private FilesDroppedListener filesDroppedListener;
+    private Label loadingLabel;
+    private String loadingStatus;
 
     public RootTable() {
         super(skin);
@@ -122,12 +127,14 @@ public class RootTable extends Table {
         
         scrollPaneListener = new ScrollPaneListener();
         previewFonts = new Array<>();
+        previewStyles = new IdentityMap<>();
+        previewFontCache = new IdentityMap<>();
         
         atlasData.produceAtlas();
         
         filesDroppedListener = (Array<FileHandle> files) -> {
             for (FileHandle fileHandle : files) {
-                if (fileHandle.extension().toLowerCase(Locale.ROOT).equals("scmp")) {
+                if (ProjectData.isProjectFile(fileHandle)) {
                     fire(new ScmpDroppedEvent(fileHandle));
                     break;
                 }
@@ -2071,6 +2078,9 @@ public class RootTable extends Table {
             for (BitmapFont font : previewFonts) {
                 font.dispose();
             }
+            previewFonts.clear();
+            previewFontCache.clear();
+            previewStyles.clear();
 
             if (classSelectBox.getSelectedIndex() >= 0 && classSelectBox.getSelectedIndex() < Main.BASIC_CLASSES.length) {
                 StyleData styleData = getSelectedStyle();
@@ -2092,6 +2102,10 @@ public class RootTable extends Table {
                     label = new Label("All fields are empty!\nEmpty classes are not exported\nAdd style properties in the menu to the left", getSkin());
                     label.setAlignment(Align.center);
                     previewTable.add(label);
+                } else if (!projectLoader.isPreviewReady(styleData)) {
+                    Label label = new Label("Loading resources...", getSkin());
+                    label.setAlignment(Align.center);
+                    previewTable.add(label);
                 } else {
                     Actor widget = null;
                     
@@ -2451,8 +2465,12 @@ public class RootTable extends Table {
                                     for (FontData fd : jsonData.getFonts()) {
                                         if (fd.getName().equals(fontName)) {
                                             fontData = fd;
-                                            font = new BitmapFont(fd.file);
-                                            previewFonts.add(font);
+                                            font = previewFontCache.get(fd);
+                                            if (font == null) {
+                                                font = new BitmapFont(fd.file);
+                                                previewFonts.add(font);
+                                                previewFontCache.put(fd, font);
+                                            }
                                             break;
                                         }
                                     }
@@ -2510,7 +2528,37 @@ public class RootTable extends Table {
         }
     }
     
+    /**
+     * Forgets the preview styles created by createPreviewStyle() so they are
+     * resolved again against the current drawables, colors and fonts.
+     */
+    public void invalidatePreviewStyles() {
+        previewStyles.clear();
+    }
+    
+    /**
+     * Creates a style for previews from the inherited values of the StyleData.
+     * Styles are cached by StyleData, so many widgets sharing a style resolve
+     * it once. The cache is kept until the next refreshPreview() or
+     * invalidatePreviewStyles() and until the project is changed, so callers
+     * that don't refresh the main preview, such as the scene composer, never
+     * see a style resolved before an edit. The returned style must not be
+     * modified.
+     * @param <T>
+     * @param clazz
+     * @param styleData
+     * @return 
+     */
     public <T> T createPreviewStyle(Class<T> clazz, StyleData styleData) {
+        //any edit may change this style, its parents or the resources it uses
+        if (previewStylesChangeCount != projectData.getChangeCount()) {
+            previewStyles.clear();
+            previewStylesChangeCount = projectData.getChangeCount();
+        }
+        
+        var cached = previewStyles.get(styleData);
+        if (cached != null && cached.getClass() == clazz) return (T) cached;
+        
         T returnValue = null;
         try {
             T instance = ClassReflection.newInstance(clazz);
@@ -2530,8 +2578,12 @@ public class RootTable extends Table {
                     } else if (field.getType().equals(BitmapFont.class)) {
                         for (FontData data : projectData.getJsonData().getFonts()) {
                             if (value.equals(data.getName())) {
-                                BitmapFont font = new BitmapFont(data.file);
-                                previewFonts.add(font);
+                                BitmapFont font = previewFontCache.get(data);
+                                if (font == null) {
+                                    font = new BitmapFont(data.file);
+                                    previewFonts.add(font);
+                                    previewFontCache.put(data, font);
+                                }
                                 field.set(instance, font);
                             }
                         }
@@ -2577,6 +2629,7 @@ public class RootTable extends Table {
                 }
             }
             returnValue = instance;
+            previewStyles.put(styleData, instance);
         } catch (Exception e) {
             Gdx.app.error(RootTable.class.getName(), "Error creating style", e);
             dialogFactory.showDialogError("Error Creating Style", "Unable to create style " + styleData.name + " for class " + clazz.getSimpleName() + "\nOpen log?");
@@ -2589,9 +2642,23 @@ public class RootTable extends Table {
         table.setBackground(getSkin().getDrawable("status-bar"));
         add(table).growX();
         
+        loadingLabel = new Label(loadingStatus == null ? "" : loadingStatus, getSkin());
+        table.add(loadingLabel).padLeft(25.0f);
+        
         Label label = new Label("ver. " + Main.VERSION + "    RAY3K.WORDPRESS.COM    © 2020 Raymond \"Raeleus\" Buckley", getSkin());
         table.add(label).expandX().right().padRight(25.0f);
     }
+    
+    /**
+     * Shows the progress of loading project resources in the status bar.
+     * @param status The text to display or null to clear it.
+     */
+    public void setLoadingStatus(String status) {
+        loadingStatus = status;
+        if (loadingLabel != null) {
+            loadingLabel.setText(status == null ? "" : status);
+        }
+    }
 
     public SelectBox getClassSelectBox() {
         return classSelectBox;
@@ -2690,26 +2757,7 @@ public class RootTable extends Table {
             if (file.exists()) {
                 dialogFactory.showDialogLoading(() -> {
                     Gdx.app.postRunnable(() -> {
-                        projectData.load(file);
-                        Array<DrawableData> drawableErrors = projectData.verifyDrawablePaths();
-                        Array<FontData> fontErrors = projectData.verifyFontPaths();
-                        var freeTypeFontErrors = projectData.verifyFreeTypeFontPaths();
-                        if (drawableErrors.size > 0 || fontErrors.size > 0 || freeTypeFontErrors.size > 0) {
-                            dialogFactory.showDialogPathErrors(drawableErrors, fontErrors,
-                                    freeTypeFontErrors);
-                        }
-        
-                        if (projectData.checkForInvalidMinWidthHeight()) {
-                            projectData.setLoadedVersion(Main.VERSION);
-                            dialogFactory.yesNoDialog("Fix minWidth and minHeight errors?",
-                                    "Old project (< v.30) detected.\nResolve minWidth and minHeight errors?",
-                                    selection -> {
-                                        if (selection == 0) {
-                                            projectData.fixInvalidMinWidthHeight();
-                                            mainListener.refreshTextureAtlas();
-                                        }
-                                    }, null);
-                        }
+                        mainListener.loadProject(file);
                     });
                 });
             }
@@ -23,8 +23,81 @@
  ******************************************************************************/
 package com.ray3k.skincomposer;
 
+import com.badlogic.gdx.utils.Array;
+
+import java.util.EnumSet;
+
 public interface Undoable {
+    /**
+     * Project and UI state that may have to be rebuilt after an undoable is
+     * applied.
+     */
+    public enum Invalidation {
+        /**
+         * Styles of the selected class were added or removed.
+         */
+        STYLES,
+        /**
+         * The style properties panel shows a changed value.
+         */
+        PROPERTIES,
+        /**
+         * The preview of the selected style has to be redrawn.
+         */
+        PREVIEW,
+        /**
+         * Drawables were added, removed or modified and the atlas has to be
+         * produced again.
+         */
+        ATLAS
+    }
+    
     public void undo();
     public void redo();
     public String getUndoText();
+    
+    /**
+     * Returns the StyleProperty or CustomProperty whose value is changed by
+     * this undoable or null if it makes structural changes to the project.
+     * Used to journal changes for autosave.
+     * @return 
+     */
+    public default Object getProperty() {
+        return null;
+    }
+    
+    /**
+     * Returns the widget classes whose styles are added, removed, renamed,
+     * reordered or otherwise changed by this undoable beyond the value of
+     * getProperty(). CustomClass.class stands for the custom classes and their
+     * styles. Used to journal structural changes for autosave without writing
+     * the rest of the project. Returns null if nothing beyond getProperty()
+     * changes.
+     * @return 
+     */
+    public default Array<Class> getChangedClasses() {
+        return null;
+    }
+    
+    /**
+     * Returns a rough estimate of the memory in bytes kept alive by this
+     * undoable while it remains in the undo history. Undoables that hold on to
+     * deleted or duplicated project data should override this so the history
+     * can be trimmed to its memory budget.
+     * @return 
+     */
+    public default long getRetainedSize() {
+        return UndoableManager.UNDOABLE_SIZE;
+    }
+    
+    /**
+     * Returns the state invalidated by undo() and redo(). The UndoableManager
+     * rebuilds it once after applying the undoable, so undoables that declare
+     * their invalidations only need to change the project data. Undoables that
+     * refresh the UI themselves return an empty set.
+     * @return 
+     */
+    public default EnumSet<Invalidation> getInvalidations() {
+        return EnumSet.noneOf(Invalidation.class);
+    }
 }
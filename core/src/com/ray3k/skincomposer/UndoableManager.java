@@ -26,17 +26,59 @@ package com.ray3k.skincomposer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.ui.SelectBox;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
 import com.ray3k.skincomposer.data.*;
+import com.ray3k.skincomposer.Undoable.Invalidation;
 import com.ray3k.skincomposer.data.CustomProperty.PropertyType;
 
+import java.util.EnumSet;
 import java.util.Iterator;
 
 import static com.ray3k.skincomposer.Main.*;
 import static com.ray3k.skincomposer.Main.atlasData;
 
 public class UndoableManager {
+    /**
+     * Footprint of an undoable that only holds a few references and values,
+     * measured on a 64-bit JVM with compressed references.
+     */
+    public static final long UNDOABLE_SIZE = 48;
+    /**
+     * Measured footprint of a StyleData copy without properties and of each
+     * StyleProperty it holds, including a boxed value.
+     */
+    static final long STYLE_SIZE = 768, STYLE_PROPERTY_SIZE = 56;
+    /**
+     * Measured footprint of a CustomStyle copy without properties and of each
+     * CustomProperty it holds, including a boxed value.
+     */
+    static final long CUSTOM_STYLE_SIZE = 120, CUSTOM_PROPERTY_SIZE = 56;
+    /**
+     * The history never holds more undoables than this, regardless of the
+     * memory budget.
+     */
+    public static final int MAX_UNDOABLES = 1000;
+    /**
+     * Consecutive edits to the same property within this many milliseconds
+     * are merged into a single undo step.
+     */
+    public static final long COALESCE_WINDOW = 1000;
     private final Array<Undoable> undoables;
+    /**
+     * The size of each undoable in the history, taken when it was added.
+     */
+    private final LongArray retainedSizes = new LongArray();
+    private long retainedSize;
     private int undoIndex;
+    private Undoable lastAdded;
+    private long lastAddedTime;
+    private Array<Undoable> transaction;
+    private String transactionText;
+    private int transactionDepth;
 
     public UndoableManager(Main main) {
         undoables = new Array<>();
@@ -45,7 +87,11 @@ public class UndoableManager {
     
     public void clearUndoables() {
         undoables.clear();
+        retainedSizes.clear();
+        retainedSize = 0;
         undoIndex = -1;
+        lastAdded = null;
+        if (transaction != null) transaction.clear();
         
         rootTable.setUndoText("Undo");
         rootTable.setRedoText("Redo");
@@ -57,10 +103,11 @@ public class UndoableManager {
     
     public void undo() {
         if (undoIndex >= 0 && undoIndex < undoables.size) {
-            projectData.setChangesSaved(false);
             Undoable undoable = undoables.get(undoIndex);
-            undoable.undo();
+            apply(undoable, true);
+            invalidate(undoable.getInvalidations());
             undoIndex--;
+            lastAdded = null;
 
             if (undoIndex < 0) {
                 rootTable.setUndoDisabled(true);
@@ -76,10 +123,12 @@ public class UndoableManager {
     
     public void redo() {
         if (undoIndex >= -1 && undoIndex < undoables.size) {
-            projectData.setChangesSaved(false);
             if (undoIndex < undoables.size - 1) {
                 undoIndex++;
-                undoables.get(undoIndex).redo();
+                lastAdded = null;
+                Undoable undoable = undoables.get(undoIndex);
+                apply(undoable, false);
+                invalidate(undoable.getInvalidations());
             }
 
             if (undoIndex >= undoables.size - 1) {
@@ -95,33 +144,399 @@ public class UndoableManager {
     }
     
     public void addUndoable(Undoable undoable, boolean redoImmediately) {
-        projectData.setChangesSaved(false);
-        undoIndex++;
-        if (undoIndex <= undoables.size - 1) {
-            undoables.removeRange(undoIndex, undoables.size - 1);
+        if (transaction != null) {
+            //the ui is refreshed once when the transaction is committed
+            projectJournal.record(undoable, () -> {
+                projectData.setChangesSaved(false);
+                jsonData.invalidateReferences();
+                
+                if (redoImmediately) {
+                    undoable.redo();
+                }
+            });
+            //an undoable that failed to apply is not part of the group
+            transaction.add(undoable);
+            return;
         }
-        undoables.add(undoable);
         
-        if (redoImmediately) {
-            undoable.redo();
+        push(undoable);
+        
+        projectJournal.record(undoable, () -> {
+            projectData.setChangesSaved(false);
+            //property edits make the shared reference index stale
+            jsonData.invalidateReferences();
+            
+            if (redoImmediately) {
+                undoable.redo();
+                invalidate(undoable.getInvalidations());
+            }
+        });
+        
+        showAdded(undoable);
+    }
+    
+    public void addUndoable(Undoable undoable) {
+        addUndoable(undoable, false);
+    }
+    
+    /**
+     * Starts grouping added undoables into a single undo step until commit()
+     * or abort() is called. Transactions may be nested, only the outermost
+     * commit() records the group. Prefer transaction(String, Runnable), which
+     * can't leave a transaction open if the operation fails.
+     * @param undoText The text shown for the group in the undo and redo
+     * buttons or null to use the text of the last undoable in the group.
+     */
+    public void beginTransaction(String undoText) {
+        if (transactionDepth++ == 0) {
+            transaction = new Array<>();
+            transactionText = undoText;
         }
+    }
+    
+    public void beginTransaction() {
+        beginTransaction(null);
+    }
+    
+    /**
+     * Ends the transaction started by beginTransaction(). The undoables added
+     * since are recorded as one undo step and the state they invalidate is
+     * rebuilt once.
+     */
+    public void commit() {
+        if (transactionDepth == 0) {
+            throw new GdxRuntimeException("commit() called without a matching beginTransaction()");
+        }
+        if (--transactionDepth > 0) return;
+        
+        var group = transaction;
+        transaction = null;
+        if (group.size == 0) return;
+        
+        Undoable undoable = group.size == 1 && transactionText == null ? group.first() : new TransactionUndoable(group, transactionText);
+        push(undoable);
+        invalidate(undoable.getInvalidations());
+        showAdded(undoable);
+    }
+    
+    /**
+     * Ends every open transaction and undoes the undoables added since the
+     * outermost beginTransaction() in reverse order. Nothing is added to the
+     * history. Does nothing if no transaction is open.
+     */
+    public void abort() {
+        if (transactionDepth == 0) return;
+        
+        var group = transaction;
+        transaction = null;
+        transactionDepth = 0;
+        if (group.size == 0) return;
         
+        var undoable = new TransactionUndoable(group, transactionText);
+        apply(undoable, true);
+        invalidate(undoable.getInvalidations());
+    }
+    
+    /**
+     * Runs the operation in a transaction. The transaction is committed if the
+     * operation completes and aborted if it throws.
+     * @param undoText The text shown for the group in the undo and redo
+     * buttons or null to use the text of the last undoable in the group.
+     * @param operation 
+     */
+    public void transaction(String undoText, Runnable operation) {
+        beginTransaction(undoText);
+        try {
+            operation.run();
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+        commit();
+    }
+    
+    /**
+     * Returns true while undoables are being grouped by beginTransaction().
+     * @return 
+     */
+    public boolean isInTransaction() {
+        return transaction != null;
+    }
+    
+    /**
+     * Undoes or redoes the undoable and journals the state it leaves behind.
+     * The parts of a transaction are journaled one at a time. The caller
+     * rebuilds the invalidated state afterwards.
+     * @param undoable
+     * @param undo 
+     */
+    private void apply(Undoable undoable, boolean undo) {
+        if (undoable instanceof TransactionUndoable) {
+            var parts = ((TransactionUndoable) undoable).undoables;
+            for (int i = 0; i < parts.size; i++) {
+                apply(parts.get(undo ? parts.size - 1 - i : i), undo);
+            }
+            return;
+        }
+        
+        projectJournal.record(undoable, () -> {
+            projectData.setChangesSaved(false);
+            //property edits make the shared reference index stale
+            jsonData.invalidateReferences();
+            
+            if (undo) {
+                undoable.undo();
+            } else {
+                undoable.redo();
+            }
+        });
+    }
+    
+    /**
+     * Adds the undoable to the top of the history, discarding anything that
+     * was undone and merging it with the previous edit if possible.
+     * @param undoable 
+     */
+    private void push(Undoable undoable) {
+        long time = System.currentTimeMillis();
+        
+        if (canCoalesce(undoable, time)) {
+            //keep the original value of the first edit and the latest value of this one
+            Undoable previous = undoables.pop();
+            retainedSize -= retainedSizes.pop();
+            if (previous instanceof CoalescedUndoable) previous = ((CoalescedUndoable) previous).first;
+            add(new CoalescedUndoable(previous, undoable));
+        } else {
+            undoIndex++;
+            if (undoIndex <= undoables.size - 1) {
+                for (int i = undoIndex; i < retainedSizes.size; i++) {
+                    retainedSize -= retainedSizes.get(i);
+                }
+                undoables.removeRange(undoIndex, undoables.size - 1);
+                retainedSizes.removeRange(undoIndex, retainedSizes.size - 1);
+            }
+            add(undoable);
+        }
+        lastAdded = undoable;
+        lastAddedTime = time;
+    }
+    
+    private void add(Undoable undoable) {
+        long size = undoable.getRetainedSize();
+        undoables.add(undoable);
+        retainedSizes.add(size);
+        retainedSize += size;
+    }
+    
+    private void showAdded(Undoable undoable) {
         rootTable.setUndoDisabled(false);
         rootTable.setRedoDisabled(true);
         rootTable.setRedoText("Redo");
         rootTable.setUndoText("Undo " + undoable.getUndoText());
         
-        if (undoables.size > projectData.getMaxUndos()) {
-            int offset = undoables.size - projectData.getMaxUndos();
-            
+        trimHistory();
+    }
+    
+    /**
+     * Rebuilds the state declared by an undoable after it has been applied.
+     * Changing which drawable a property refers to doesn't change the atlas,
+     * so it is only produced again when an undoable asks for it.
+     * @param invalidations
+     */
+    private void invalidate(EnumSet<Invalidation> invalidations) {
+        if (invalidations.contains(Invalidation.ATLAS)) {
+            atlasData.produceAtlas();
+        }
+        if (invalidations.contains(Invalidation.STYLES)) {
+            rootTable.refreshStyles(true);
+        }
+        if (invalidations.contains(Invalidation.PROPERTIES)) {
+            rootTable.refreshStyleProperties(true);
+        }
+        if (invalidations.contains(Invalidation.PREVIEW)) {
+            rootTable.refreshPreview();
+        }
+    }
+    
+    /**
+     * Returns true if the undoable continues the most recently added edit:
+     * same type, same property, nothing undone or redone in between and added
+     * within the coalescing window.
+     * @param undoable
+     * @param time
+     * @return 
+     */
+    private boolean canCoalesce(Undoable undoable, long time) {
+        if (lastAdded == null || undoIndex != undoables.size - 1) return false;
+        if (time - lastAddedTime > COALESCE_WINDOW) return false;
+        Object property = undoable.getProperty();
+        return property != null && property == lastAdded.getProperty() && undoable.getClass() == lastAdded.getClass();
+    }
+    
+    /**
+     * Drops the oldest undoables until the history fits in the memory budget
+     * set in the project settings and in MAX_UNDOABLES. The most recent
+     * undoable is always kept.
+     */
+    private void trimHistory() {
+        long budget = projectData.getUndoMemory() * 1024L * 1024L;
+        int offset = 0;
+        while ((retainedSize > budget || undoables.size - offset > MAX_UNDOABLES) && undoables.size - offset > 1) {
+            retainedSize -= retainedSizes.get(offset);
+            offset++;
+        }
+        
+        if (offset > 0) {
             undoIndex -= offset;
             undoIndex = MathUtils.clamp(undoIndex, -1, undoables.size - 1);
             undoables.removeRange(0, offset - 1);
+            retainedSizes.removeRange(0, offset - 1);
         }
     }
     
-    public void addUndoable(Undoable undoable) {
-        addUndoable(undoable, false);
+    /**
+     * Returns the estimated memory retained by the undo history.
+     * @return 
+     */
+    public long getRetainedSize() {
+        return retainedSize;
+    }
+    
+    /**
+     * Returns the widget class and every widget class with a style property
+     * that can refer to its styles.
+     * @param clazz
+     * @return 
+     */
+    static Array<Class> withReferencingClasses(Class clazz) {
+        var classes = Array.with(clazz);
+        var styleClass = Main.basicToStyleClass(clazz);
+        for (int i = 0; i < BASIC_CLASSES.length; i++) {
+            if (BASIC_CLASSES[i] == clazz) continue;
+            for (Field field : ClassReflection.getFields(STYLE_CLASSES[i])) {
+                if (field.getType() == styleClass) {
+                    classes.add(BASIC_CLASSES[i]);
+                    break;
+                }
+            }
+        }
+        return classes;
+    }
+    
+    static long sizeOf(StyleData styleData) {
+        return styleData == null ? 0 : STYLE_SIZE + STYLE_PROPERTY_SIZE * styleData.properties.size;
+    }
+    
+    static long sizeOf(CustomStyle customStyle) {
+        return customStyle == null ? 0 : CUSTOM_STYLE_SIZE + CUSTOM_PROPERTY_SIZE * customStyle.getProperties().size;
+    }
+    
+    static long sizeOf(CustomClass customClass) {
+        if (customClass == null) return 0;
+        long size = UNDOABLE_SIZE + sizeOf(customClass.getTemplateStyle());
+        for (CustomStyle style : customClass.getStyles()) {
+            size += sizeOf(style);
+        }
+        return size;
+    }
+    
+    /**
+     * A group of undoables recorded between beginTransaction() and commit().
+     * They are undone in reverse order and the state they invalidate is
+     * rebuilt once for the whole group.
+     */
+    private static class TransactionUndoable implements Undoable {
+        private final Array<Undoable> undoables;
+        private final String undoText;
+
+        public TransactionUndoable(Array<Undoable> undoables, String undoText) {
+            this.undoables = undoables;
+            this.undoText = undoText;
+        }
+
+        @Override
+        public void undo() {
+            for (int i = undoables.size - 1; i >= 0; i--) {
+                undoables.get(i).undo();
+            }
+        }
+
+        @Override
+        public void redo() {
+            for (Undoable undoable : undoables) {
+                undoable.redo();
+            }
+        }
+
+        @Override
+        public String getUndoText() {
+            return undoText == null ? undoables.peek().getUndoText() : undoText;
+        }
+
+        @Override
+        public long getRetainedSize() {
+            long size = UNDOABLE_SIZE;
+            for (Undoable undoable : undoables) {
+                size += undoable.getRetainedSize();
+            }
+            return size;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            var invalidations = EnumSet.noneOf(Invalidation.class);
+            for (Undoable undoable : undoables) {
+                invalidations.addAll(undoable.getInvalidations());
+            }
+            return invalidations;
+        }
+    }
+    
+    /**
+     * A run of edits to the same property merged into one undo step. Undoing
+     * restores the value from before the first edit and redoing applies the
+     * value of the last.
+     */
+    private static class CoalescedUndoable implements Undoable {
+        private final Undoable first;
+        private final Undoable last;
+
+        public CoalescedUndoable(Undoable first, Undoable last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        public void undo() {
+            first.undo();
+        }
+
+        @Override
+        public void redo() {
+            last.redo();
+        }
+
+        @Override
+        public String getUndoText() {
+            return last.getUndoText();
+        }
+
+        @Override
+        public Object getProperty() {
+            return last.getProperty();
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + first.getRetainedSize() + last.getRetainedSize();
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            var invalidations = first.getInvalidations();
+            invalidations.addAll(last.getInvalidations());
+            return invalidations;
+        }
     }
     
     public static class DoubleUndoable implements Undoable {
@@ -143,21 +558,27 @@ public class UndoableManager {
         @Override
         public void undo() {
             property.value = oldValue;
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
             property.value = newValue;
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.name;
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class CustomDoubleUndoable implements Undoable {
@@ -179,21 +600,27 @@ public class UndoableManager {
         @Override
         public void undo() {
             property.setValue(oldValue);
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
             property.setValue(newValue);
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class CustomTextUndoable implements Undoable {
@@ -215,21 +642,27 @@ public class UndoableManager {
         @Override
         public void undo() {
             property.setValue(oldValue);
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
             property.setValue(newValue);
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class CustomBoolUndoable implements Undoable {
@@ -251,21 +684,27 @@ public class UndoableManager {
         @Override
         public void undo() {
             property.setValue(oldValue);
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
             property.setValue(newValue);
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class CustomStyleSelectionUndoable implements Undoable {
@@ -283,21 +722,27 @@ public class UndoableManager {
         @Override
         public void undo() {
             property.setValue(oldValue);
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
     
         @Override
         public void redo() {
             property.setValue(newValue);
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class DrawableUndoable implements Undoable {
@@ -316,28 +761,32 @@ public class UndoableManager {
 
         @Override
         public void undo() {
-            atlasData.produceAtlas();
             if (oldValue == null || atlasData.getDrawable((String) oldValue) != null) {
                 property.value = oldValue;
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
-            atlasData.produceAtlas();
             if (newValue == null || atlasData.getDrawable((String) newValue) != null) {
                 property.value = newValue;
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.name;
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
         
     }
     
@@ -355,28 +804,32 @@ public class UndoableManager {
 
         @Override
         public void undo() {
-            atlasData.produceAtlas();
             if (oldValue == null || atlasData.getDrawable(oldValue) != null) {
                 property.setValue(oldValue);
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
-            atlasData.produceAtlas();
             if (newValue == null || atlasData.getDrawable(newValue) != null) {
                 property.setValue(newValue);
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
         
     }
     
@@ -406,8 +859,6 @@ public class UndoableManager {
                     }
                 }
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
@@ -422,14 +873,22 @@ public class UndoableManager {
                     }
                 }
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.name;
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class CustomColorUndoable implements Undoable {
@@ -456,8 +915,6 @@ public class UndoableManager {
                     }
                 }
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
@@ -472,14 +929,22 @@ public class UndoableManager {
                     }
                 }
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class FontUndoable implements Undoable {
@@ -515,8 +980,6 @@ public class UndoableManager {
                     }
                 }
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
     
         @Override
@@ -538,14 +1001,22 @@ public class UndoableManager {
                     }
                 }
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.name;
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class CustomFontUndoable implements Undoable {
@@ -579,8 +1050,6 @@ public class UndoableManager {
                     }
                 }
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
     
         @Override
@@ -602,14 +1071,22 @@ public class UndoableManager {
                     }
                 }
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class SelectBoxUndoable implements Undoable {
@@ -630,21 +1107,27 @@ public class UndoableManager {
         @Override
         public void undo() {
             property.value = oldValue;
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
             property.value = newValue;
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.name;
         }
+
+        @Override
+        public Object getProperty() {
+            return property;
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
     
     public static class ParentUndoable implements Undoable {
@@ -668,21 +1151,27 @@ public class UndoableManager {
         @Override
         public void undo() {
             style.parent = oldValue;
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
             style.parent = newValue;
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
         }
 
         @Override
         public String getUndoText() {
             return "Change Style Parent";
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(style.clazz);
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
 
     public static class NewStyleUndoable implements Undoable {
@@ -700,19 +1189,32 @@ public class UndoableManager {
         @Override
         public void undo() {
             jsonData.deleteStyle(styleData);
-            rootTable.refreshStyles(true);
         }
 
         @Override
         public void redo() {
             styleData = jsonData.newStyle(selectedClass, name);
-            rootTable.refreshStyles(true);
         }
 
         @Override
         public String getUndoText() {
             return "Create Style \"" + styleData.name + "\"";
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(selectedClass);
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + sizeOf(styleData);
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.STYLES);
+        }
     }
 
     public static class DuplicateStyleUndoable implements Undoable {
@@ -730,19 +1232,32 @@ public class UndoableManager {
         @Override
         public void undo() {
             jsonData.deleteStyle(styleData);
-            rootTable.refreshStyles(true);
         }
 
         @Override
         public void redo() {
             styleData = jsonData.copyStyle(originalStyle, name);
-            rootTable.refreshStyles(true);
         }
 
         @Override
         public String getUndoText() {
             return "Duplicate Style \"" + styleData.name + "\"";
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(originalStyle.clazz);
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + sizeOf(styleData);
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.STYLES);
+        }
     }
     
     public static class DeleteStyleUndoable implements Undoable {
@@ -757,19 +1272,84 @@ public class UndoableManager {
         @Override
         public void undo() {
             jsonData.copyStyle(styleData, styleData.name);
-            rootTable.refreshStyles(true);
         }
 
         @Override
         public void redo() {
             jsonData.deleteStyle(styleData);
-            rootTable.refreshStyles(true);
         }
 
         @Override
         public String getUndoText() {
             return "Delete Style \"" + styleData.name + "\"";
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return withReferencingClasses(styleData.clazz);
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + sizeOf(styleData);
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.STYLES);
+        }
+    }
+
+    /**
+     * Removes a drawable and the regions of ten patches that refer to it.
+     * Style properties referencing the drawable are cleared by separate
+     * undoables in the same transaction.
+     */
+    public static class DeleteDrawableUndoable implements Undoable {
+        private final DrawableData drawable;
+        private final ObjectMap<DrawableData, Array<String>> tenPatchRegions = new ObjectMap<>();
+        private int index;
+
+        public DeleteDrawableUndoable(DrawableData drawable) {
+            this.drawable = drawable;
+        }
+
+        @Override
+        public void undo() {
+            var drawables = atlasData.getDrawables();
+            drawables.insert(Math.min(index, drawables.size), drawable);
+            for (var entry : tenPatchRegions) {
+                entry.key.tenPatchData.regionNames.clear();
+                entry.key.tenPatchData.regionNames.addAll(entry.value);
+                entry.key.tenPatchData.regions = null;
+            }
+        }
+
+        @Override
+        public void redo() {
+            var drawables = atlasData.getDrawables();
+            index = drawables.indexOf(drawable, true);
+            drawables.removeIndex(index);
+            
+            tenPatchRegions.clear();
+            for (var data : drawables) {
+                if (data.tenPatchData != null && data.tenPatchData.regionNames.contains(drawable.name, false)) {
+                    tenPatchRegions.put(data, new Array<>(data.tenPatchData.regionNames));
+                    while (data.tenPatchData.regionNames.removeValue(drawable.name, false)) {}
+                    data.tenPatchData.regions = null;
+                }
+            }
+        }
+
+        @Override
+        public String getUndoText() {
+            return "Delete Drawable \"" + drawable.name + "\"";
+        }
+
+        @Override
+        public EnumSet<Invalidation> getInvalidations() {
+            return EnumSet.of(Invalidation.ATLAS, Invalidation.PROPERTIES, Invalidation.PREVIEW);
+        }
     }
 
     public static class RenameStyleUndoable implements Undoable {
@@ -777,6 +1357,7 @@ public class UndoableManager {
         private final Main main;
         private final String oldName;
         private final String newName;
+        private Array<StyleProperty> references;
 
         public RenameStyleUndoable(StyleData styleData, Main main, String name) {
             this.styleData = styleData;
@@ -790,14 +1371,8 @@ public class UndoableManager {
         public void undo() {
             styleData.name = oldName;
             
-            for (Array<StyleData> styles : jsonData.getClassStyleMap().values()) {
-                for (StyleData style : styles) {
-                    for (StyleProperty styleProperty : style.properties.values()) {
-                        if (styleProperty.type.equals(Main.basicToStyleClass(styleData.clazz)) && styleProperty.value.equals(newName)) {
-                            styleProperty.value = oldName;
-                        }
-                    }
-                }
+            for (StyleProperty styleProperty : references) {
+                styleProperty.value = oldName;
             }
             
             rootTable.refreshStyles(false);
@@ -813,16 +1388,25 @@ public class UndoableManager {
         public void redo() {
             styleData.name = newName;
             
-            for (Array<StyleData> styles : jsonData.getClassStyleMap().values()) {
-                for (StyleData style : styles) {
-                    for (StyleProperty styleProperty : style.properties.values()) {
-                        if (styleProperty.type.equals(Main.basicToStyleClass(styleData.clazz)) && styleProperty.value.equals(oldName)) {
-                            styleProperty.value = newName;
+            //history is linear, so the properties found by the first redo are the ones to change on every undo and redo
+            if (references == null) {
+                references = new Array<>();
+                var styleClass = Main.basicToStyleClass(styleData.clazz);
+                for (Array<StyleData> styles : jsonData.getClassStyleMap().values()) {
+                    for (StyleData style : styles) {
+                        for (StyleProperty styleProperty : style.properties.values()) {
+                            if (styleProperty.type.equals(styleClass) && oldName.equals(styleProperty.value)) {
+                                references.add(styleProperty);
+                            }
                         }
                     }
                 }
             }
             
+            for (StyleProperty styleProperty : references) {
+                styleProperty.value = newName;
+            }
+            
             rootTable.refreshStyles(false);
             int index = 0;
             for (var style : jsonData.getClassStyleMap().get(rootTable.getSelectedClass())) {
@@ -837,6 +1421,11 @@ public class UndoableManager {
             return "Rename Style \"" + styleData.name + "\"";
         }
         
+        @Override
+        public Array<Class> getChangedClasses() {
+            return withReferencingClasses(styleData.clazz);
+        }
+        
     }
     
     public static class ReorderStylesUndoable implements Undoable {
@@ -886,6 +1475,11 @@ public class UndoableManager {
         public String getUndoText() {
             return "Reorder styles for class \"" + widgetClass.getSimpleName() + "\"";
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(widgetClass);
+        }
     }
     
     public static class ReorderCustomStylesUndoable implements Undoable {
@@ -927,6 +1521,11 @@ public class UndoableManager {
         public String getUndoText() {
             return "Reorder styles for class \"" + customClass.getDisplayName() + "\"";
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
     }
 
     public static class NewCustomClassUndoable implements Undoable {
@@ -958,6 +1557,11 @@ public class UndoableManager {
         public String getUndoText() {
             return "New Class " + displayName;
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
     }
     
     public static class RenameCustomClassUndoable implements Undoable {
@@ -1004,6 +1608,11 @@ public class UndoableManager {
             return "Rename Class to " + displayName;
         }
         
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
+        
     }
     
     public static class DeleteCustomClassUndoable implements Undoable {
@@ -1034,6 +1643,16 @@ public class UndoableManager {
             return "Delete class " + customClass.getDisplayName();
         }
         
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + sizeOf(customClass);
+        }
+        
     }
     
     public static class DuplicateCustomClassUndoable implements Undoable{
@@ -1071,6 +1690,16 @@ public class UndoableManager {
         public String getUndoText() {
             return "Duplicate class " + customClass.getDisplayName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + sizeOf(customClass);
+        }
     }
     
     public static class NewCustomPropertyUndoable implements Undoable {
@@ -1122,6 +1751,11 @@ public class UndoableManager {
         public String getUndoText() {
             return "New Property " + customProperty.getName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
     }
     
     public static class DuplicateCustomPropertyUndoable implements Undoable {
@@ -1171,6 +1805,11 @@ public class UndoableManager {
         public String getUndoText() {
             return "Duplicate Property " + customProperty.getName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
     }
     
     public static class RenameCustomPropertyUndoable implements Undoable {
@@ -1237,6 +1876,11 @@ public class UndoableManager {
         public String getUndoText() {
             return "Rename Property " + customProperty.getName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
     }
 
     public static class DeleteCustomPropertyUndoable implements Undoable {
@@ -1287,6 +1931,11 @@ public class UndoableManager {
         public String getUndoText() {
             return "Delete Property " + customProperty.getName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
     }
 
     public static class NewCustomStyleUndoable implements Undoable {
@@ -1321,6 +1970,16 @@ public class UndoableManager {
         public String getUndoText() {
             return "New style " + style.getName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + sizeOf(style);
+        }
     }
     
     public static class DuplicateCustomStyleUndoable implements Undoable {
@@ -1354,6 +2013,16 @@ public class UndoableManager {
         public String getUndoText() {
             return "Duplicate style " + style.getName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + sizeOf(style);
+        }
     }
     
     public static class DeleteCustomStyleUndoable implements Undoable {
@@ -1385,6 +2054,16 @@ public class UndoableManager {
         public String getUndoText() {
             return "Delete style " + style.getName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return UNDOABLE_SIZE + sizeOf(style);
+        }
     }
 
     public static class RenameCustomStyleUndoable implements Undoable {
@@ -1420,5 +2099,10 @@ public class UndoableManager {
         public String getUndoText() {
             return "Duplicate style " + style.getName();
         }
+        
+        @Override
+        public Array<Class> getChangedClasses() {
+            return Array.with(CustomClass.class);
+        }
     }
 }
\ No newline at end of file
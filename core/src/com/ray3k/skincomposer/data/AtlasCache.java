@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.utils.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Keeps packed export atlases in the app folder keyed by the fingerprint of
+ * their images and packer settings so that projects sharing the same images
+ * reuse one packing, including projects exported concurrently by separate
+ * processes. Entries are written to a temporary folder and renamed into place
+ * so a reader never sees a partial entry.
+ * @author Raymond
+ */
+public class AtlasCache {
+    private static final String NAME = "atlas";
+    private static final int MAX_ENTRIES = 20;
+    
+    private static FileHandle getFolder() {
+        return appFolder.child("cache/atlas/");
+    }
+    
+    /**
+     * Copies the cached atlas to the target, renaming the pages after the
+     * target atlas.
+     * @param key
+     * @param atlasFile
+     * @return True if the atlas was cached
+     * @throws IOException 
+     */
+    public static boolean restore(String key, FileHandle atlasFile) throws IOException {
+        if (key == null) return false;
+        var entry = getFolder().child(key);
+        var cachedAtlas = entry.child(NAME + ".atlas");
+        if (!cachedAtlas.exists()) return false;
+        
+        //remove pages left behind by a previous export with more pages
+        var name = atlasFile.nameWithoutExtension();
+        for (var old : atlasFile.parent().list((file, fileName) -> fileName.matches(Pattern.quote(name) + "\\d*\\.(?i)png"))) {
+            old.delete();
+        }
+        
+        var pattern = Pattern.compile(NAME + "(\\d*\\.png)");
+        
+        var lines = Files.readAllLines(cachedAtlas.file().toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            var matcher = pattern.matcher(lines.get(i));
+            if (matcher.matches()) {
+                var page = entry.child(lines.get(i));
+                var target = atlasFile.sibling(name + matcher.group(1));
+                Files.copy(page.file().toPath(), target.file().toPath(), StandardCopyOption.REPLACE_EXISTING);
+                lines.set(i, target.name());
+            }
+        }
+        Utils.writeAtomically(atlasFile, outputStream -> outputStream.write(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)));
+        
+        //mark the entry as recently used
+        entry.file().setLastModified(System.currentTimeMillis());
+        return true;
+    }
+    
+    /**
+     * Adds the freshly packed atlas to the cache. Does nothing if another
+     * export already cached the same key.
+     * @param key
+     * @param atlasFile
+     * @param pages
+     * @throws IOException 
+     */
+    public static void store(String key, FileHandle atlasFile, Array<FileHandle> pages) throws IOException {
+        if (key == null) return;
+        var folder = getFolder();
+        var entry = folder.child(key);
+        if (entry.exists()) return;
+        
+        folder.mkdirs();
+        var temp = Files.createTempDirectory(folder.parent().file().toPath(), "atlas-");
+        try {
+            var pagePattern = Pattern.compile(Pattern.quote(atlasFile.nameWithoutExtension()) + "(\\d*\\.png)");
+            var lines = Files.readAllLines(atlasFile.file().toPath(), StandardCharsets.UTF_8);
+            for (int i = 0; i < lines.size(); i++) {
+                var matcher = pagePattern.matcher(lines.get(i));
+                if (matcher.matches()) lines.set(i, NAME + matcher.group(1));
+            }
+            Files.write(temp.resolve(NAME + ".atlas"), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+            
+            for (var page : pages) {
+                var matcher = pagePattern.matcher(page.name());
+                if (matcher.matches()) Files.copy(page.file().toPath(), temp.resolve(NAME + matcher.group(1)));
+            }
+            
+            try {
+                Files.move(temp, entry.file().toPath());
+            } catch (FileAlreadyExistsException e) {
+                //another export stored the same atlas first
+            }
+        } finally {
+            deleteRecursively(temp);
+        }
+        
+        prune();
+    }
+    
+    /**
+     * Removes the least recently used entries beyond the limit.
+     */
+    private static void prune() {
+        var entries = new Array<FileHandle>(getFolder().list());
+        if (entries.size <= MAX_ENTRIES) return;
+        
+        entries.sort((a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        for (int i = MAX_ENTRIES; i < entries.size; i++) {
+            try {
+                deleteRecursively(entries.get(i).file().toPath());
+            } catch (IOException e) {
+                Gdx.app.error(AtlasCache.class.getName(), "Error while pruning atlas cache: " + entries.get(i).path(), e);
+            }
+        }
+    }
+    
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) return;
+        try (var stream = Files.walk(path)) {
+            var paths = stream.sorted((a, b) -> b.compareTo(a)).toArray(Path[]::new);
+            for (var child : paths) {
+                Files.deleteIfExists(child);
+            }
+        }
+    }
+}
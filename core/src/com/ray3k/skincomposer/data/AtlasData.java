@@ -104,7 +104,7 @@ public class AtlasData implements Json.Serializable {
             FileHandle saveFile = projectData.getSaveFile();
             FileHandle targetDirectory;
             if (saveFile != null) {
-                targetDirectory = saveFile.sibling(saveFile.nameWithoutExtension() + "_data/");
+                targetDirectory = projectData.getDataFolder(saveFile);
             } else {
                 targetDirectory = Main.appFolder.child("temp/" + projectData.getId() + "_data/");
             }
@@ -206,6 +206,21 @@ public class AtlasData implements Json.Serializable {
     }
     
     public Array<String> writeAtlas(FileHandle targetFile, FileHandle settingsFile) throws Exception {
+        return writeAtlas(targetFile, settingsFile, drawables, fontDrawables);
+    }
+    
+    /**
+     * Packs the specified drawables into an atlas at the target file. Doesn't
+     * iterate the project's lists, so it may be called off of the application
+     * thread with copies of them.
+     * @param targetFile
+     * @param settingsFile
+     * @param drawables
+     * @param fontDrawables
+     * @return Warnings for missing files.
+     * @throws Exception 
+     */
+    public Array<String> writeAtlas(FileHandle targetFile, FileHandle settingsFile, Array<DrawableData> drawables, Array<DrawableData> fontDrawables) throws Exception {
         Array<String> warnings = new Array<>();
         targetFile.parent().mkdirs();
         FileHandle[] oldFiles = targetFile.parent().list(new FilenameFilter() {
@@ -219,8 +234,24 @@ public class AtlasData implements Json.Serializable {
         }
         targetFile.sibling(targetFile.nameWithoutExtension() + ".atlas").delete();
         
-        Array<FileHandle> files = new Array<>();
+        var files = getAtlasFiles(drawables, fontDrawables, warnings);
         
+        desktopWorker.texturePack(files, projectData.getSaveFile(), targetFile, settingsFile);
+        return warnings;
+    }
+    
+    /**
+     * Returns the image files packed into the texture atlas in packing order.
+     * Missing files are reported in warnings.
+     * @param warnings
+     * @return 
+     */
+    public Array<FileHandle> getAtlasFiles(Array<String> warnings) {
+        return getAtlasFiles(drawables, fontDrawables, warnings);
+    }
+    
+    private Array<FileHandle> getAtlasFiles(Array<DrawableData> drawables, Array<DrawableData> fontDrawables, Array<String> warnings) {
+        Array<FileHandle> files = new Array<>();
         
         for (DrawableData drawable : fontDrawables) {
             if (!files.contains(drawable.file, false)) {
@@ -251,8 +282,7 @@ public class AtlasData implements Json.Serializable {
             files.add(fileHandle);
         }
         
-        desktopWorker.texturePack(files, projectData.getSaveFile(), targetFile, settingsFile);
-        return warnings;
+        return files;
     }
     
     public TextureAtlas getAtlas() {
@@ -370,103 +400,10 @@ public class AtlasData implements Json.Serializable {
             drawablePairs.clear();
             
             if (!atlasData.atlasCurrent) {
-                if (atlas != null) {
-                    atlas.dispose();
-                    atlas = null;
-                }
-                FileHandle defaultsFile = Main.appFolder.child("texturepacker/atlas-internal-settings.json");
-                atlasData.writeAtlas(defaultsFile);
-                atlasData.atlasCurrent = true;
-                
-                //clear all regions in any tenPatchData
-                for (var data : atlasData.getDrawables()) {
-                    if (data.tenPatchData != null) {
-                        data.tenPatchData.regions = null;
-                    }
-                }
-            }
-            atlas = atlasData.getAtlas();
-            
-            var combined = new Array<>(getDrawables());
-            combined.addAll(getFontDrawables());
-            
-            for (DrawableData data : combined) {
-                Drawable drawable;
-                if (data.type == DrawableType.CUSTOM) {
-                    drawable = skin.getDrawable("custom");
-                } else if (data.type == DrawableType.PIXEL) {
-                    drawable = ((TextureRegionDrawable) skin.getDrawable("white")).tint(jsonData.getColorByName(data.tintName).color);
-                    drawable.setMinWidth(data.minWidth);
-                    drawable.setMinHeight(data.minHeight);
-                } else if (data.type == DrawableType.TENPATCH) {
-                    var region = atlas.findRegion(DrawableData.proper(data.file.name()));
-                    drawable = new TenPatchDrawable(data.tenPatchData.horizontalStretchAreas.toArray(),
-                            data.tenPatchData.verticalStretchAreas.toArray(), data.tenPatchData.tile, region);
-                    if (((TenPatchDrawable) drawable).horizontalStretchAreas.length == 0) {
-                        ((TenPatchDrawable) drawable).horizontalStretchAreas = new int[] {0, region.getRegionWidth() - 1};
-                    }
-                    if (((TenPatchDrawable) drawable).verticalStretchAreas.length == 0) {
-                        ((TenPatchDrawable) drawable).verticalStretchAreas = new int[] {0, region.getRegionHeight() - 1};
-                    }
-                    
-                    drawable.setLeftWidth(data.tenPatchData.contentLeft);
-                    drawable.setRightWidth(data.tenPatchData.contentRight);
-                    drawable.setTopHeight(data.tenPatchData.contentTop);
-                    drawable.setBottomHeight(data.tenPatchData.contentBottom);
-                    
-                    if (!MathUtils.isEqual(data.minWidth, -1)) drawable.setMinWidth(data.minWidth);
-                    if (!MathUtils.isEqual(data.minHeight, -1)) drawable.setMinHeight(data.minHeight);
-                    if (data.tenPatchData.colorName != null) ((TenPatchDrawable) drawable).setColor(jsonData.getColorByName(data.tenPatchData.colorName).color);
-                    if (data.tenPatchData.color1Name != null) ((TenPatchDrawable) drawable).setColor1(jsonData.getColorByName(data.tenPatchData.color1Name).color);
-                    if (data.tenPatchData.color2Name != null) ((TenPatchDrawable) drawable).setColor2(jsonData.getColorByName(data.tenPatchData.color2Name).color);
-                    if (data.tenPatchData.color3Name != null) ((TenPatchDrawable) drawable).setColor3(jsonData.getColorByName(data.tenPatchData.color3Name).color);
-                    if (data.tenPatchData.color4Name != null) ((TenPatchDrawable) drawable).setColor4(jsonData.getColorByName(data.tenPatchData.color4Name).color);
-                    ((TenPatchDrawable) drawable).setOffsetX(data.tenPatchData.offsetX);
-                    ((TenPatchDrawable) drawable).setOffsetY(data.tenPatchData.offsetY);
-                    ((TenPatchDrawable) drawable).setOffsetXspeed(data.tenPatchData.offsetXspeed);
-                    ((TenPatchDrawable) drawable).setOffsetYspeed(data.tenPatchData.offsetYspeed);
-                    ((TenPatchDrawable) drawable).setFrameDuration(data.tenPatchData.frameDuration);
-                    ((TenPatchDrawable) drawable).setPlayMode(data.tenPatchData.playMode);
-                    if (data.tenPatchData.regions == null) {
-                        data.tenPatchData.regions = new Array<>();
-                        for (var name : data.tenPatchData.regionNames) {
-                            data.tenPatchData.regions.add(atlas.findRegion(name));
-                        }
-                    }
-                    ((TenPatchDrawable) drawable).setRegions(data.tenPatchData.regions);
-                } else if (data.type == DrawableType.TILED) {
-                    String name = data.file.name();
-                    name = DrawableData.proper(name);
-                    drawable = new TiledDrawable(atlas.findRegion(name));
-                    drawable.setMinWidth(data.minWidth);
-                    drawable.setMinHeight(data.minHeight);
-                    ((TiledDrawable) drawable).getColor().set(jsonData.getColorByName(data.tintName).color);
-                } else if (data.type == DrawableType.NINE_PATCH) {
-                    String name = data.file.name();
-                    name = DrawableData.proper(name);
-                    drawable = new NinePatchDrawable(atlas.createPatch(name));
-                    if (data.tint != null) {
-                        drawable = ((NinePatchDrawable) drawable).tint(data.tint);
-                    } else if (data.tintName != null) {
-                        drawable = ((NinePatchDrawable) drawable).tint(jsonData.getColorByName(data.tintName).color);
-                    }
-                    if (!MathUtils.isEqual(data.minWidth, -1)) drawable.setMinWidth(data.minWidth);
-                    if (!MathUtils.isEqual(data.minHeight, -1)) drawable.setMinHeight(data.minHeight);
-                } else {
-                    String name = data.file.name();
-                    name = DrawableData.proper(name);
-                    drawable = new SpriteDrawable(atlas.createSprite(name));
-                    if (data.tint != null) {
-                        drawable = ((SpriteDrawable) drawable).tint(data.tint);
-                    } else if (data.tintName != null) {
-                        drawable = ((SpriteDrawable) drawable).tint(jsonData.getColorByName(data.tintName).color);
-                    }
-                    if (!MathUtils.isEqual(data.minWidth, -1)) drawable.setMinWidth(data.minWidth);
-                    if (!MathUtils.isEqual(data.minHeight, -1)) drawable.setMinHeight(data.minHeight);
-                }
-                
-                drawablePairs.put(data, drawable);
+                disposeAtlas();
+                packAtlas();
             }
+            createDrawables();
             return true;
         } catch (Exception e) {
             Gdx.app.error(getClass().getName(), "Error while attempting to generate drawables.", e);
@@ -475,6 +412,136 @@ public class AtlasData implements Json.Serializable {
         }
     }
     
+    /**
+     * Disposes the loaded TextureAtlas and the drawables created from it.
+     */
+    public void disposeAtlas() {
+        drawablePairs.clear();
+        if (atlas != null) {
+            atlas.dispose();
+            atlas = null;
+        }
+    }
+    
+    /**
+     * Packs the drawables into the temporary atlas and marks it as current.
+     * @throws Exception 
+     */
+    public void packAtlas() throws Exception {
+        packAtlas(drawables, fontDrawables);
+    }
+    
+    /**
+     * Packs the specified drawables into the temporary atlas and marks it as
+     * current. Doesn't create any textures or iterate the project's lists, so
+     * it may be called off of the application thread with copies of them.
+     * @param drawables
+     * @param fontDrawables
+     * @throws Exception 
+     */
+    public void packAtlas(Array<DrawableData> drawables, Array<DrawableData> fontDrawables) throws Exception {
+        FileHandle defaultsFile = Main.appFolder.child("texturepacker/atlas-internal-settings.json");
+        writeAtlas(Main.appFolder.child("temp/" + projectData.getId() + ".atlas"), defaultsFile, drawables, fontDrawables);
+        atlasCurrent = true;
+        
+        //clear all regions in any tenPatchData
+        for (var data : drawables) {
+            if (data.tenPatchData != null) {
+                data.tenPatchData.regions = null;
+            }
+        }
+    }
+    
+    /**
+     * Loads the packed atlas and creates the drawables displayed on screen.
+     */
+    public void createDrawables() {
+        drawablePairs.clear();
+        if (rootTable != null) rootTable.invalidatePreviewStyles();
+        atlas = atlasData.getAtlas();
+        
+        var combined = new Array<>(getDrawables());
+        combined.addAll(getFontDrawables());
+        
+        for (DrawableData data : combined) {
+            Drawable drawable;
+            if (data.type == DrawableType.CUSTOM) {
+                drawable = skin.getDrawable("custom");
+            } else if (data.type == DrawableType.PIXEL) {
+                drawable = ((TextureRegionDrawable) skin.getDrawable("white")).tint(jsonData.getColorByName(data.tintName).color);
+                drawable.setMinWidth(data.minWidth);
+                drawable.setMinHeight(data.minHeight);
+            } else if (data.type == DrawableType.TENPATCH) {
+                var region = atlas.findRegion(DrawableData.proper(data.file.name()));
+                drawable = new TenPatchDrawable(data.tenPatchData.horizontalStretchAreas.toArray(),
+                        data.tenPatchData.verticalStretchAreas.toArray(), data.tenPatchData.tile, region);
+                if (((TenPatchDrawable) drawable).horizontalStretchAreas.length == 0) {
+                    ((TenPatchDrawable) drawable).horizontalStretchAreas = new int[] {0, region.getRegionWidth() - 1};
+                }
+                if (((TenPatchDrawable) drawable).verticalStretchAreas.length == 0) {
+                    ((TenPatchDrawable) drawable).verticalStretchAreas = new int[] {0, region.getRegionHeight() - 1};
+                }
+                
+                drawable.setLeftWidth(data.tenPatchData.contentLeft);
+                drawable.setRightWidth(data.tenPatchData.contentRight);
+                drawable.setTopHeight(data.tenPatchData.contentTop);
+                drawable.setBottomHeight(data.tenPatchData.contentBottom);
+                
+                if (!MathUtils.isEqual(data.minWidth, -1)) drawable.setMinWidth(data.minWidth);
+                if (!MathUtils.isEqual(data.minHeight, -1)) drawable.setMinHeight(data.minHeight);
+                if (data.tenPatchData.colorName != null) ((TenPatchDrawable) drawable).setColor(jsonData.getColorByName(data.tenPatchData.colorName).color);
+                if (data.tenPatchData.color1Name != null) ((TenPatchDrawable) drawable).setColor1(jsonData.getColorByName(data.tenPatchData.color1Name).color);
+                if (data.tenPatchData.color2Name != null) ((TenPatchDrawable) drawable).setColor2(jsonData.getColorByName(data.tenPatchData.color2Name).color);
+                if (data.tenPatchData.color3Name != null) ((TenPatchDrawable) drawable).setColor3(jsonData.getColorByName(data.tenPatchData.color3Name).color);
+                if (data.tenPatchData.color4Name != null) ((TenPatchDrawable) drawable).setColor4(jsonData.getColorByName(data.tenPatchData.color4Name).color);
+                ((TenPatchDrawable) drawable).setOffsetX(data.tenPatchData.offsetX);
+                ((TenPatchDrawable) drawable).setOffsetY(data.tenPatchData.offsetY);
+                ((TenPatchDrawable) drawable).setOffsetXspeed(data.tenPatchData.offsetXspeed);
+                ((TenPatchDrawable) drawable).setOffsetYspeed(data.tenPatchData.offsetYspeed);
+                ((TenPatchDrawable) drawable).setFrameDuration(data.tenPatchData.frameDuration);
+                ((TenPatchDrawable) drawable).setPlayMode(data.tenPatchData.playMode);
+                if (data.tenPatchData.regions == null) {
+                    data.tenPatchData.regions = new Array<>();
+                    for (var name : data.tenPatchData.regionNames) {
+                        data.tenPatchData.regions.add(atlas.findRegion(name));
+                    }
+                }
+                ((TenPatchDrawable) drawable).setRegions(data.tenPatchData.regions);
+            } else if (data.type == DrawableType.TILED) {
+                String name = data.file.name();
+                name = DrawableData.proper(name);
+                drawable = new TiledDrawable(atlas.findRegion(name));
+                drawable.setMinWidth(data.minWidth);
+                drawable.setMinHeight(data.minHeight);
+                ((TiledDrawable) drawable).getColor().set(jsonData.getColorByName(data.tintName).color);
+            } else if (data.type == DrawableType.NINE_PATCH) {
+                String name = data.file.name();
+                name = DrawableData.proper(name);
+                drawable = new NinePatchDrawable(atlas.createPatch(name));
+                if (data.tint != null) {
+                    drawable = ((NinePatchDrawable) drawable).tint(data.tint);
+                } else if (data.tintName != null) {
+                    drawable = ((NinePatchDrawable) drawable).tint(jsonData.getColorByName(data.tintName).color);
+                }
+                if (!MathUtils.isEqual(data.minWidth, -1)) drawable.setMinWidth(data.minWidth);
+                if (!MathUtils.isEqual(data.minHeight, -1)) drawable.setMinHeight(data.minHeight);
+            } else {
+                String name = data.file.name();
+                name = DrawableData.proper(name);
+                drawable = new SpriteDrawable(atlas.createSprite(name));
+                if (data.tint != null) {
+                    drawable = ((SpriteDrawable) drawable).tint(data.tint);
+                } else if (data.tintName != null) {
+                    drawable = ((SpriteDrawable) drawable).tint(jsonData.getColorByName(data.tintName).color);
+                }
+                if (!MathUtils.isEqual(data.minWidth, -1)) drawable.setMinWidth(data.minWidth);
+                if (!MathUtils.isEqual(data.minHeight, -1)) drawable.setMinHeight(data.minHeight);
+            }
+            
+            drawablePairs.put(data, drawable);
+        }
+    }
+    
     public ObjectMap<DrawableData, Drawable> getDrawablePairs() {
         return drawablePairs;
     }
@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.ray3k.skincomposer.utils.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Records the content hashes of the inputs and outputs of an export next to
+ * the exported skin so that a later export can skip the stages whose inputs
+ * are unchanged and whose outputs have not been modified since. Hashes are
+ * cached by file size and modification time so unchanged files are not read
+ * again.
+ * @author Raymond
+ */
+public class ExportManifest {
+    public static final String EXTENSION = "manifest";
+    private static final int VERSION = 1;
+    private final FileHandle file;
+    private final ObjectMap<String, FileHash> hashes = new ObjectMap<>();
+    private final ObjectMap<String, String> fingerprints = new ObjectMap<>();
+    private final ObjectMap<String, ObjectMap<String, String>> outputs = new ObjectMap<>();
+    private final ObjectSet<String> used = new ObjectSet<>();
+    
+    private ExportManifest(FileHandle file) {
+        this.file = file;
+    }
+    
+    /**
+     * Reads the manifest stored next to the exported skin. An empty manifest
+     * is returned if there is none or it can't be read.
+     * @param targetFile The exported skin JSON
+     * @return 
+     */
+    public static ExportManifest load(FileHandle targetFile) {
+        var manifest = new ExportManifest(targetFile.sibling(targetFile.nameWithoutExtension() + "." + EXTENSION));
+        if (!manifest.file.exists()) return manifest;
+        
+        try {
+            var root = new JsonReader().parse(manifest.file);
+            if (root.getInt("version", 0) != VERSION) return manifest;
+            
+            for (var value : root.get("hashes")) {
+                manifest.hashes.put(value.name, new FileHash(value.getLong("size"), value.getLong("modified"), value.getString("hash")));
+            }
+            
+            for (var value : root.get("fingerprints")) {
+                manifest.fingerprints.put(value.name, value.asString());
+            }
+            
+            for (var stage : root.get("outputs")) {
+                var map = new ObjectMap<String, String>();
+                for (var value : stage) {
+                    map.put(value.name, value.asString());
+                }
+                manifest.outputs.put(stage.name, map);
+            }
+        } catch (Exception e) {
+            Gdx.app.error(ExportManifest.class.getName(), "Error while reading export manifest: " + manifest.file.path(), e);
+            manifest.hashes.clear();
+            manifest.fingerprints.clear();
+            manifest.outputs.clear();
+        }
+        return manifest;
+    }
+    
+    /**
+     * Returns the hex encoded SHA-256 of the file contents or null if the file
+     * does not exist.
+     * @param fileHandle
+     * @return
+     * @throws IOException 
+     */
+    public String hash(FileHandle fileHandle) throws IOException {
+        var path = fileHandle.file().toPath().toAbsolutePath();
+        if (!Files.isRegularFile(path)) return null;
+        
+        var key = path.toString();
+        used.add(key);
+        var size = Files.size(path);
+        var modified = Files.getLastModifiedTime(path).toMillis();
+        var cached = hashes.get(key);
+        if (cached != null && cached.size == size && cached.modified == modified) return cached.hash;
+        
+        var digest = createDigest();
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            var buffer = new byte[65536];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        
+        var hash = toHex(digest.digest());
+        hashes.put(key, new FileHash(size, modified, hash));
+        return hash;
+    }
+    
+    /**
+     * Combines the names and contents of the files and the extra values into a
+     * single hash. Returns null if any of the files is missing so that the
+     * stage is never considered current.
+     * @param files
+     * @param extras
+     * @return
+     * @throws IOException 
+     */
+    public String fingerprint(Array<FileHandle> files, String... extras) throws IOException {
+        var digest = createDigest();
+        for (var fileHandle : files) {
+            var hash = hash(fileHandle);
+            if (hash == null) return null;
+            digest.update((fileHandle.name() + ":" + hash + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        
+        for (var extra : extras) {
+            digest.update((extra + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * Returns true if the stage was last exported with the same fingerprint
+     * and all of its outputs still have the recorded contents.
+     * @param stage
+     * @param fingerprint
+     * @return
+     * @throws IOException 
+     */
+    public boolean isCurrent(String stage, String fingerprint) throws IOException {
+        if (fingerprint == null || !fingerprint.equals(fingerprints.get(stage))) return false;
+        
+        var stageOutputs = outputs.get(stage);
+        if (stageOutputs == null || stageOutputs.size == 0) return false;
+        
+        for (var entry : stageOutputs) {
+            if (!entry.value.equals(hash(file.sibling(entry.key)))) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Records the fingerprint and the current contents of the outputs of a
+     * stage. Outputs must be in the same folder as the exported skin.
+     * @param stage
+     * @param fingerprint
+     * @param files
+     * @throws IOException 
+     */
+    public void record(String stage, String fingerprint, Array<FileHandle> files) throws IOException {
+        var stageOutputs = new ObjectMap<String, String>();
+        for (var fileHandle : files) {
+            var hash = hash(fileHandle);
+            if (hash != null) stageOutputs.put(fileHandle.name(), hash);
+        }
+        
+        if (fingerprint == null) fingerprints.remove(stage);
+        else fingerprints.put(stage, fingerprint);
+        outputs.put(stage, stageOutputs);
+    }
+    
+    /**
+     * Forgets the stage so that it is exported again next time.
+     * @param stage 
+     */
+    public void invalidate(String stage) {
+        fingerprints.remove(stage);
+        outputs.remove(stage);
+    }
+    
+    public void save() throws IOException {
+        Utils.writeAtomically(file, outputStream -> {
+            var writer = new JsonWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.setOutputType(JsonWriter.OutputType.json);
+            writer.object();
+            writer.set("version", VERSION);
+            
+            //only keep the hashes of files used by this export
+            writer.object("hashes");
+            for (var entry : hashes) {
+                if (!used.contains(entry.key) || !Files.exists(Paths.get(entry.key))) continue;
+                writer.object(entry.key);
+                writer.set("size", entry.value.size);
+                writer.set("modified", entry.value.modified);
+                writer.set("hash", entry.value.hash);
+                writer.pop();
+            }
+            writer.pop();
+            
+            writer.object("fingerprints");
+            for (var entry : fingerprints) {
+                writer.set(entry.key, entry.value);
+            }
+            writer.pop();
+            
+            writer.object("outputs");
+            for (var stage : outputs) {
+                writer.object(stage.key);
+                for (var entry : stage.value) {
+                    writer.set(entry.key, entry.value);
+                }
+                writer.pop();
+            }
+            writer.pop();
+            
+            writer.pop();
+            writer.flush();
+        });
+    }
+    
+    public FileHandle getFile() {
+        return file;
+    }
+    
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        var builder = new StringBuilder(bytes.length * 2);
+        for (var b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+    
+    private static class FileHash {
+        final long size;
+        final long modified;
+        final String hash;
+        
+        FileHash(long size, long modified, String hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+}
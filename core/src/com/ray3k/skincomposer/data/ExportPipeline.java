@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.utils.Utils;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Exports the skin JSON, the texture atlas and the fonts of the current
+ * project on a background thread. None of the stages require the GL context:
+ * the JSON only reads project data, the atlas is packed from the image files
+ * and fonts are copied as files. The project must not be modified while the
+ * export is running. Listener callbacks are posted to the application thread.
+ * An {@link ExportManifest} next to the skin lets a re-export skip the atlas
+ * and font copies when nothing changed.
+ * @author Raymond
+ */
+public class ExportPipeline {
+    private static final String JSON_STAGE = "json";
+    private static final String ATLAS_STAGE = "atlas";
+    private static final String FONTS_STAGE = "fonts";
+    private final AtomicBoolean cancelled;
+    
+    public ExportPipeline() {
+        cancelled = new AtomicBoolean();
+    }
+    
+    /**
+     * Starts exporting the project to the target JSON file. The atlas and fonts
+     * are written next to it if the project settings request them. Returns
+     * immediately.
+     * @param targetFile
+     * @param listener 
+     */
+    public void export(FileHandle targetFile, ExportListener listener) {
+        cancelled.set(false);
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "export-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        var exportingAtlas = projectData.isExportingAtlas();
+        var exportingFonts = projectData.isExportingFonts();
+        var fonts = new Array<FileHandle>();
+        if (exportingFonts) {
+            for (FontData font : projectData.getJsonData().getFonts()) {
+                if (!font.file.parent().equals(targetFile.parent())) fonts.add(font.file);
+            }
+            
+            for (FreeTypeFontData font : projectData.getJsonData().getFreeTypeFonts()) {
+                if (font.useCustomSerializer && !font.file.parent().equals(targetFile.parent())) fonts.add(font.file);
+            }
+        }
+        
+        executor.execute(() -> {
+            var warnings = new Array<String>();
+            var manifest = ExportManifest.load(targetFile);
+            try {
+                Gdx.app.postRunnable(() -> listener.stageStarted(ExportStage.JSON, 1));
+                try {
+                    writeJson(targetFile, manifest, warnings);
+                } catch (Exception e) {
+                    Gdx.app.error(getClass().getName(), "Error while writing skin JSON", e);
+                    Gdx.app.postRunnable(() -> listener.failed(ExportStage.JSON, e));
+                    return;
+                }
+                
+                if (exportingAtlas && !cancelled.get()) {
+                    Gdx.app.postRunnable(() -> listener.stageStarted(ExportStage.ATLAS, 1));
+                    try {
+                        writeAtlas(targetFile, manifest, warnings);
+                    } catch (Exception e) {
+                        manifest.invalidate(ATLAS_STAGE);
+                        Gdx.app.error(getClass().getName(), "Error while writing texture atlas", e);
+                        Gdx.app.postRunnable(() -> listener.failed(ExportStage.ATLAS, e));
+                    }
+                }
+                
+                if (fonts.size > 0 && !cancelled.get()) {
+                    Gdx.app.postRunnable(() -> listener.stageStarted(ExportStage.FONTS, fonts.size));
+                    var written = new Array<FileHandle>();
+                    for (int i = 0; i < fonts.size && !cancelled.get(); i++) {
+                        var font = fonts.get(i);
+                        try {
+                            written.add(copyFont(font, targetFile, manifest));
+                        } catch (Exception e) {
+                            Gdx.app.error(getClass().getName(), "Error while copying font: " + font.path(), e);
+                            Gdx.app.postRunnable(() -> listener.failed(ExportStage.FONTS, e));
+                        }
+                        
+                        var completed = i + 1;
+                        Gdx.app.postRunnable(() -> listener.progress(ExportStage.FONTS, completed, fonts.size));
+                    }
+                    manifest.record(FONTS_STAGE, null, written);
+                }
+            } catch (IOException e) {
+                Gdx.app.error(getClass().getName(), "Error while updating export manifest", e);
+            } finally {
+                try {
+                    manifest.save();
+                } catch (IOException e) {
+                    Gdx.app.error(getClass().getName(), "Error while writing export manifest: " + manifest.getFile().path(), e);
+                }
+                
+                executor.shutdown();
+                var wasCancelled = cancelled.get();
+                Gdx.app.postRunnable(() -> listener.finished(warnings, wasCancelled));
+            }
+        });
+    }
+    
+    /**
+     * Writes the JSON next to the target and only replaces the target if the
+     * contents differ, leaving an unchanged skin untouched.
+     * @param targetFile
+     * @param manifest
+     * @param warnings
+     * @throws IOException 
+     */
+    private void writeJson(FileHandle targetFile, ExportManifest manifest, Array<String> warnings) throws IOException {
+        var tempFile = targetFile.sibling(targetFile.name() + ".export");
+        try {
+            warnings.addAll(projectData.getJsonData().writeFile(tempFile));
+            
+            if (!manifest.hash(tempFile).equals(manifest.hash(targetFile))) {
+                Utils.moveAtomically(tempFile.file().toPath(), targetFile.file().toPath());
+            }
+        } finally {
+            tempFile.delete();
+        }
+        manifest.record(JSON_STAGE, null, Array.with(targetFile));
+    }
+    
+    /**
+     * Packs the atlas unless the images, the packer settings and the previously
+     * written atlas files are unchanged since the last export. An atlas packed
+     * from the same images for another skin is copied from the AtlasCache.
+     * @param targetFile
+     * @param manifest
+     * @param warnings
+     * @throws Exception 
+     */
+    private void writeAtlas(FileHandle targetFile, ExportManifest manifest, Array<String> warnings) throws Exception {
+        var atlasFile = targetFile.sibling(targetFile.nameWithoutExtension() + ".atlas");
+        var settingsFile = appFolder.child("texturepacker/atlas-export-settings.json");
+        
+        var inputs = new Array<FileHandle>();
+        for (var fileHandle : projectData.getAtlasData().getAtlasFiles(new Array<>())) {
+            inputs.add(resolveResource(fileHandle));
+        }
+        inputs.add(settingsFile);
+        var fingerprint = manifest.fingerprint(inputs, atlasFile.name());
+        
+        if (manifest.isCurrent(ATLAS_STAGE, fingerprint)) return;
+        
+        //the shared cache is keyed without the atlas name so other skins with the same images can use it
+        var cacheKey = manifest.fingerprint(inputs);
+        var restored = false;
+        try {
+            restored = AtlasCache.restore(cacheKey, atlasFile);
+        } catch (IOException e) {
+            //another export may prune the entry while it is copied, so the cache never fails the export
+            Gdx.app.error(getClass().getName(), "Error while restoring cached texture atlas", e);
+        }
+        if (!restored) {
+            warnings.addAll(projectData.getAtlasData().writeAtlas(atlasFile, settingsFile));
+        }
+        
+        var pages = new Array<>(atlasFile.parent().list((file, name) -> name.matches(Pattern.quote(atlasFile.nameWithoutExtension()) + "\\d*\\.(?i)png")));
+        if (!restored) {
+            try {
+                AtlasCache.store(cacheKey, atlasFile, pages);
+            } catch (IOException e) {
+                Gdx.app.error(getClass().getName(), "Error while caching texture atlas", e);
+            }
+        }
+        
+        var outputs = new Array<FileHandle>();
+        outputs.add(atlasFile);
+        outputs.addAll(pages);
+        manifest.record(ATLAS_STAGE, fingerprint, outputs);
+    }
+    
+    /**
+     * Copies the font file next to the target unless an identical copy is
+     * already there.
+     * @param font
+     * @param targetFile
+     * @param manifest
+     * @return The copied file
+     * @throws IOException 
+     */
+    private FileHandle copyFont(FileHandle font, FileHandle targetFile, ExportManifest manifest) throws IOException {
+        var copy = targetFile.sibling(font.name());
+        var hash = manifest.hash(font);
+        if (hash == null || !hash.equals(manifest.hash(copy))) {
+            font.copyTo(copy);
+        }
+        return copy;
+    }
+    
+    /**
+     * Falls back to the project data folder for resources that were moved
+     * there, as the texture packer does.
+     * @param fileHandle
+     * @return 
+     */
+    private FileHandle resolveResource(FileHandle fileHandle) {
+        var saveFile = projectData.getSaveFile();
+        if (fileHandle.exists() || saveFile == null) return fileHandle;
+        return projectData.getDataFolder(saveFile).child(fileHandle.name());
+    }
+    
+    /**
+     * Stages that have not started yet are skipped. The stage in progress is
+     * allowed to finish so no partial files are left behind.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+    
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+    
+    public enum ExportStage {
+        JSON("Writing skin JSON..."), ATLAS("Packing texture atlas..."), FONTS("Copying fonts...");
+        
+        public final String description;
+        
+        ExportStage(String description) {
+            this.description = description;
+        }
+    }
+    
+    public interface ExportListener {
+        void stageStarted(ExportStage stage, int total);
+        void progress(ExportStage stage, int completed, int total);
+        void failed(ExportStage stage, Exception e);
+        void finished(Array<String> warnings, boolean cancelled);
+    }
+}
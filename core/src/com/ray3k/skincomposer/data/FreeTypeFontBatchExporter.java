@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rasterizes several FreeType fonts to FNT/PNG pairs concurrently. Every font
+ * is generated on a worker thread by its own FreeTypeFontGenerator, so each
+ * worker owns its FreeType library and no native state is shared. Listener
+ * callbacks are posted to the application thread.
+ * @author Raymond
+ */
+public class FreeTypeFontBatchExporter {
+    private final int threads;
+    private final AtomicBoolean cancelled;
+
+    public FreeTypeFontBatchExporter() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public FreeTypeFontBatchExporter(int threads) {
+        this.threads = Math.max(1, threads);
+        cancelled = new AtomicBoolean();
+    }
+
+    /**
+     * Starts exporting each font to the target at the same index. Returns
+     * immediately.
+     * @param fonts
+     * @param targets
+     * @param listener 
+     */
+    public void export(Array<FreeTypeFontData> fonts, Array<FileHandle> targets, BatchListener listener) {
+        if (fonts.size != targets.size) {
+            throw new IllegalArgumentException("Each font requires exactly one target file.");
+        }
+
+        cancelled.set(false);
+        var total = fonts.size;
+        var completed = new AtomicInteger();
+        var written = new Array<FileHandle>();
+
+        if (total == 0) {
+            Gdx.app.postRunnable(() -> listener.finished(written, false));
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, total), runnable -> {
+            var thread = new Thread(runnable, "font-batch-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < total; i++) {
+            var font = fonts.get(i);
+            var target = targets.get(i);
+            //project colors are resolved here because the workers must not iterate shared arrays
+            var parameter = font.file == null ? null : font.createParameter();
+
+            executor.execute(() -> {
+                try {
+                    if (!cancelled.get()) {
+                        font.writeFontData(parameter, target);
+                        synchronized (written) {
+                            written.add(target);
+                        }
+                    }
+                } catch (Exception e) {
+                    Gdx.app.error(FreeTypeFontBatchExporter.class.getName(), "Error while exporting font: " + target.path(), e);
+                    Gdx.app.postRunnable(() -> listener.failed(font, target, e));
+                } finally {
+                    var count = completed.incrementAndGet();
+                    Gdx.app.postRunnable(() -> listener.progress(font, target, count, total));
+                    
+                    if (count == total) {
+                        executor.shutdown();
+                        var wasCancelled = cancelled.get();
+                        Gdx.app.postRunnable(() -> listener.finished(written, wasCancelled));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Fonts that have not started rasterizing yet are skipped. Fonts already
+     * in progress are allowed to finish so no partial files are left behind.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Creates a copy of the font for every size and a matching target named
+     * after the size, ie. "font-12.fnt".
+     * @param font
+     * @param sizes
+     * @param target
+     * @param fonts Output array for the font copies
+     * @param targets Output array for the target files
+     */
+    public static void createSizeVariants(FreeTypeFontData font, int[] sizes, FileHandle target, Array<FreeTypeFontData> fonts, Array<FileHandle> targets) {
+        for (var size : sizes) {
+            var copy = new FreeTypeFontData(font);
+            copy.size = size;
+            fonts.add(copy);
+            targets.add(target.sibling(target.nameWithoutExtension() + "-" + size + ".fnt"));
+        }
+    }
+
+    public interface BatchListener {
+        void progress(FreeTypeFontData font, FileHandle target, int completed, int total);
+        void failed(FreeTypeFontData font, FileHandle target, Exception e);
+        void finished(Array<FileHandle> written, boolean cancelled);
+    }
+}
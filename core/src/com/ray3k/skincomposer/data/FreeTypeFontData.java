@@ -125,45 +125,7 @@ public class FreeTypeFontData implements Json.Serializable {
             if (file == null || !file.exists()) return;
             FreeTypeFontGenerator generator = new FreeTypeFontGenerator(file);
             generator.setMaxTextureSize(FreeTypeFontGenerator.NO_MAXIMUM);
-            FreeTypeFontParameter parameter = new FreeTypeFontParameter();
-
-            if (borderColor != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(borderColor)) {
-                    parameter.borderColor = colorData.color;
-                    break;
-                }
-            }
-            parameter.borderGamma = borderGamma;
-            parameter.borderStraight = borderStraight;
-            parameter.borderWidth = borderWidth;
-            parameter.characters = characters.equals("") ? DEFAULT_CHARS : characters;
-            if (color != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(color)) {
-                    parameter.color = colorData.color;
-                    break;
-                }
-            }
-            parameter.flip = flip;
-            parameter.gamma = gamma;
-            parameter.genMipMaps = genMipMaps;
-            parameter.hinting = hinting == null ? Hinting.AutoMedium : Hinting.valueOf(hinting);
-            parameter.incremental = false;
-            parameter.kerning = kerning;
-            parameter.magFilter = magFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(magFilter);
-            parameter.minFilter = minFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(minFilter);
-            parameter.mono = mono;
-            parameter.renderCount = renderCount;
-            if (shadowColor != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(shadowColor)) {
-                    parameter.shadowColor = colorData.color;
-                    break;
-                }
-            }
-            parameter.shadowOffsetX = shadowOffsetX;
-            parameter.shadowOffsetY = shadowOffsetY;
-            parameter.size = size;
-            parameter.spaceX = spaceX;
-            parameter.spaceY = spaceY;
+            FreeTypeFontParameter parameter = createParameter();
             
             try {
                 bitmapFont = generator.generateFont(parameter);
@@ -194,54 +156,87 @@ public class FreeTypeFontData implements Json.Serializable {
             }
         } else {
             if (file == null) return;
-            FreeTypeFontGenerator generator = new FreeTypeFontGenerator(file);
-            FreeTypeFontParameter parameter = new FreeTypeFontParameter();
-
-            if (borderColor != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(borderColor)) {
-                    parameter.borderColor = colorData.color;
-                    break;
-                }
-            }
-            parameter.borderGamma = borderGamma;
-            parameter.borderStraight = borderStraight;
-            parameter.borderWidth = borderWidth;
-            parameter.characters = characters.equals("") ? DEFAULT_CHARS : characters;
-            if (color != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(color)) {
-                    parameter.color = colorData.color;
-                    break;
-                }
-            }
-            parameter.flip = flip;
-            parameter.gamma = gamma;
-            parameter.genMipMaps = genMipMaps;
-            parameter.hinting = hinting == null ? Hinting.AutoMedium : Hinting.valueOf(hinting);
-            parameter.incremental = false;
-            parameter.kerning = kerning;
-            parameter.magFilter = magFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(magFilter);
-            parameter.minFilter = minFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(minFilter);
-            parameter.mono = mono;
-            parameter.renderCount = renderCount;
-            if (shadowColor != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(shadowColor)) {
-                    parameter.shadowColor = colorData.color;
-                    break;
-                }
-            }
-            parameter.shadowOffsetX = shadowOffsetX;
-            parameter.shadowOffsetY = shadowOffsetY;
-            parameter.size = size;
-            parameter.spaceX = spaceX;
-            parameter.spaceY = spaceY;
-            parameter.packer = new PixmapPacker(512, 512, Pixmap.Format.RGBA8888, 2, false, new PixmapPacker.SkylineStrategy());
+            writeFontData(target);
+        }
+    }
+    
+    /**
+     * Writes the FNT and PNG files to the target. Must be called on the
+     * application thread.
+     * @param target 
+     */
+    public void writeFontData(FileHandle target) {
+        writeFontData(createParameter(), target);
+    }
+    
+    /**
+     * Writes the FNT and PNG files to the target using a parameter created
+     * beforehand by {@link #createParameter()}. Does not touch the preview
+     * BitmapFont, any textures or the project colors so it may be called from
+     * a worker thread.
+     * @param parameter
+     * @param target 
+     */
+    public void writeFontData(FreeTypeFontParameter parameter, FileHandle target) {
+        if (file == null) throw new GdxRuntimeException("Font \"" + name + "\" has no TTF file.");
+        
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(file);
+        parameter.packer = new PixmapPacker(512, 512, Pixmap.Format.RGBA8888, 2, false, new PixmapPacker.SkylineStrategy());
 
+        try {
             var data = generator.generateData(parameter);
-            
             desktopWorker.writeFont(data, parameter.packer.getPages(), target);
+        } finally {
+            parameter.packer.dispose();
             generator.dispose();
         }
     }
+    
+    /**
+     * Creates the generator parameter with the project colors resolved. Must
+     * be called on the application thread.
+     * @return 
+     */
+    public FreeTypeFontParameter createParameter() {
+        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+        
+        var borderColorData = findColor(borderColor);
+        if (borderColorData != null) parameter.borderColor = borderColorData.color;
+        parameter.borderGamma = borderGamma;
+        parameter.borderStraight = borderStraight;
+        parameter.borderWidth = borderWidth;
+        parameter.characters = characters.equals("") ? DEFAULT_CHARS : characters;
+        var colorData = findColor(color);
+        if (colorData != null) parameter.color = colorData.color;
+        parameter.flip = flip;
+        parameter.gamma = gamma;
+        parameter.genMipMaps = genMipMaps;
+        parameter.hinting = hinting == null ? Hinting.AutoMedium : Hinting.valueOf(hinting);
+        parameter.incremental = false;
+        parameter.kerning = kerning;
+        parameter.magFilter = magFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(magFilter);
+        parameter.minFilter = minFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(minFilter);
+        parameter.mono = mono;
+        parameter.renderCount = renderCount;
+        var shadowColorData = findColor(shadowColor);
+        if (shadowColorData != null) parameter.shadowColor = shadowColorData.color;
+        parameter.shadowOffsetX = shadowOffsetX;
+        parameter.shadowOffsetY = shadowOffsetY;
+        parameter.size = size;
+        parameter.spaceX = spaceX;
+        parameter.spaceY = spaceY;
+        
+        return parameter;
+    }
+    
+    private static ColorData findColor(String name) {
+        if (name == null) return null;
+        var colors = jsonData.getColors();
+        for (int i = 0; i < colors.size; i++) {
+            if (colors.get(i).getName().equals(name)) return colors.get(i);
+        }
+        return null;
+    }
 
     @Override
     public void write(Json json) {
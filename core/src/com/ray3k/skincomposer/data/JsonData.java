@@ -45,13 +45,16 @@ import com.ray3k.skincomposer.data.CustomProperty.PropertyType;
 import com.ray3k.skincomposer.data.DrawableData.DrawableType;
 import com.ray3k.skincomposer.dialog.DialogFactory;
 import com.ray3k.skincomposer.dialog.DialogTenPatch;
+import com.ray3k.skincomposer.utils.PrettyJsonStreamWriter;
 import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.tenpatch.TenPatchDrawable;
 
 import static com.ray3k.skincomposer.Main.*;
 import static com.ray3k.skincomposer.data.DrawableData.DrawableType.*;
 
-import java.io.StringWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 
 public class JsonData implements Json.Serializable {
@@ -60,6 +63,7 @@ public class JsonData implements Json.Serializable {
     private Array<FreeTypeFontData> freeTypeFonts;
     private OrderedMap<Class, Array<StyleData>> classStyleMap;
     private Array<CustomClass> customClasses;
+    private transient ReferenceChecker referenceChecker;
     
     public static enum ExportFormat {
         MINIMAL("Minimal", JsonWriter.OutputType.minimal), JAVASCRIPT("JavaScript", JsonWriter.OutputType.javascript), JSON("JSON", JsonWriter.OutputType.json);
@@ -100,6 +104,7 @@ public class JsonData implements Json.Serializable {
         freeTypeFonts.clear();
         initializeClassStyleMap();
         customClasses.clear();
+        invalidateReferences();
     }
 
     /**
@@ -112,6 +117,7 @@ public class JsonData implements Json.Serializable {
         Array<String> warnings = new Array<>();
         
         projectData.setChangesSaved(false);
+        invalidateReferences();
         
         //read drawables from texture atlas file
         FileHandle atlasHandle = fileHandle.sibling(fileHandle.nameWithoutExtension() + ".atlas");
@@ -126,7 +132,7 @@ public class JsonData implements Json.Serializable {
         FileHandle saveFile = projectData.getSaveFile();
         FileHandle targetDirectory;
         if (saveFile != null) {
-            targetDirectory = saveFile.sibling(saveFile.nameWithoutExtension() + "_data");
+            targetDirectory = projectData.getDataFolder(saveFile);
         } else {
             targetDirectory = new FileHandle(Main.appFolder.child("temp/" + projectData.getId() + "_data").file());
         }
@@ -488,99 +494,33 @@ public class JsonData implements Json.Serializable {
         return warnings;
     }
     
+    /**
+     * Clears style and custom properties that reference missing colors or
+     * fonts. Missing drawables referenced by styles are added as custom
+     * drawables.
+     */
     public void checkForPropertyConsistency() {
-        for (Class clazz : classStyleMap.keys()) {
-            for (StyleData styleData : classStyleMap.get(clazz)) {
-                for (StyleProperty property : styleData.properties.values()) {
-                    if (property.value != null) {
-                        boolean keep = false;
-                        if (property.type == Color.class) {
-                            for (ColorData color : colors) {
-                                if (property.value.equals(color.getName())) {
-                                    keep = true;
-                                    break;
-                                }
-                            }
-                        } else if (property.type == BitmapFont.class) {
-                            for (FontData font : fonts) {
-                                if (property.value.equals(font.getName())) {
-                                    keep = true;
-                                    break;
-                                }
-                            }
-                            for (FreeTypeFontData font : freeTypeFonts) {
-                                if (property.value.equals(font.name)) {
-                                    keep = true;
-                                    break;
-                                }
-                            }
-                        } else if (property.type == Drawable.class) {
-                            for (DrawableData drawable : atlasData.getDrawables()) {
-                                if (property.value.equals(drawable.name)) {
-                                    keep = true;
-                                    break;
-                                }
-                            }
-                            
-                            if (!keep) {
-                                keep = true;
-                                DrawableData customDrawable = new DrawableData((String) property.value);
-                                customDrawable.type = DrawableType.CUSTOM;
-                                atlasData.getDrawables().add(customDrawable);
-                            }
-                        } else {
-                            keep = true;
-                        }
-
-                        if (!keep) {
-                            property.value = null;
-                        }
-                    }
-                }
-            }
-        }
-        
-        for (CustomClass customClass : customClasses) {
-            for (CustomStyle customStyle: customClass.getStyles()) {
-                for (CustomProperty customProperty : customStyle.getProperties()) {
-                    if (customProperty.getValue() != null) {
-                        boolean keep = false;
-                        if (null == customProperty.getType()) {
-                            keep = true;
-                        } else switch (customProperty.getType()) {
-                            case COLOR:
-                                for (ColorData color : colors) {
-                                    if (customProperty.getValue().equals(color.getName())) {
-                                        keep = true;
-                                        break;
-                                    }
-                                }   break;
-                            case DRAWABLE:
-                                for (DrawableData drawable : atlasData.getDrawables()) {
-                                    if (customProperty.getValue().equals(drawable.name)) {
-                                        keep = true;
-                                        break;
-                                    }
-                                }   break;
-                            case FONT:
-                                for (FontData font : fonts) {
-                                    if (customProperty.getValue().equals(font.getName())) {
-                                        keep = true;
-                                        break;
-                                    }
-                                }   break;
-                            default:
-                                keep = true;
-                                break;
-                        }
-
-                        if (!keep) {
-                            customProperty.setValue(null);
-                        }
-                    }
-                }
-            }
-        }
+        invalidateReferences();
+        getReferenceChecker().check();
+    }
+    
+    /**
+     * Returns the index of resource references shared by the resource dialogs.
+     * It is built on first use and kept current by renaming and deleting
+     * resources through it.
+     * @return 
+     */
+    public ReferenceChecker getReferenceChecker() {
+        if (referenceChecker == null) referenceChecker = new ReferenceChecker(this, atlasData);
+        return referenceChecker;
+    }
+    
+    /**
+     * Discards the reference index. Call after style or custom properties
+     * are edited without going through the ReferenceChecker.
+     */
+    public void invalidateReferences() {
+        referenceChecker = null;
     }
     
     public CustomClass getCustomClass(String name) {
@@ -612,19 +552,30 @@ public class JsonData implements Json.Serializable {
     }
 
     /**
-     * Exports skin data to a JSON file to be loaded by LibGDX.
+     * Exports skin data to a JSON file to be loaded by LibGDX. The JSON is
+     * streamed to a temporary file that replaces the target once complete.
      * @param fileHandle
      * @return 
      */
     public Array<String> writeFile(FileHandle fileHandle) {
         Array<String> warnings = new Array<>();
         
-        StringWriter stringWriter = new StringWriter();
-        JsonWriter jsonWriter = new JsonWriter(stringWriter);
-        jsonWriter.setOutputType(projectData.getExportFormat().getOutputType());
+        try {
+            Utils.writeAtomically(fileHandle, outputStream -> {
+                var writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+                Json json = new Json(projectData.getExportFormat().getOutputType());
+                json.setWriter(new PrettyJsonStreamWriter(writer));
+                writeSkin(json, warnings);
+                writer.flush();
+            });
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing skin file: " + fileHandle.path(), e);
+        }
         
-        Json json = new Json(projectData.getExportFormat().getOutputType());
-        json.setWriter(jsonWriter);
+        return warnings;
+    }
+    
+    private void writeSkin(Json json, Array<String> warnings) {
         json.writeObjectStart();
 
         //fonts
@@ -765,11 +716,13 @@ public class JsonData implements Json.Serializable {
                 if (!MathUtils.isEqual(drawable.minHeight, -1)) json.writeValue("minHeight", drawable.minHeight);
                 else json.writeValue("minHeight", Utils.imageDimensions(drawable.file).y);
                 
-                var atlasDrawable = atlasData.getDrawablePairs().get(drawable);
-                json.writeValue("leftWidth", atlasDrawable.getLeftWidth());
-                json.writeValue("rightWidth", atlasDrawable.getRightWidth());
-                json.writeValue("topHeight", atlasDrawable.getTopHeight());
-                json.writeValue("bottomHeight", atlasDrawable.getBottomHeight());
+                var splits = Utils.ninePatchSplits(drawable.file);
+                if (splits != null) {
+                    json.writeValue("leftWidth", (float) splits[0]);
+                    json.writeValue("rightWidth", (float) splits[1]);
+                    json.writeValue("topHeight", (float) splits[2]);
+                    json.writeValue("bottomHeight", (float) splits[3]);
+                }
                 json.writeObjectEnd();
             }
             json.writeObjectEnd();
@@ -838,18 +791,17 @@ public class JsonData implements Json.Serializable {
                     json.writeValue("color", drawable.tenPatchData.colorName);
                 }
                 
+                //the region is packed without trimming so it has the dimensions of the image
                 if (drawable.tenPatchData.horizontalStretchAreas.size > 0) {
                     json.writeValue("horizontalStretchAreas", drawable.tenPatchData.horizontalStretchAreas.toArray());
                 } else {
-                    var region = atlasData.getAtlas().findRegion(drawable.file.nameWithoutExtension());
-                    json.writeValue("horizontalStretchAreas", new int[]{0, region.getRegionWidth() - 1});
+                    json.writeValue("horizontalStretchAreas", new int[]{0, (int) Utils.imageDimensions(drawable.file).x - 1});
                 }
                 
                 if (drawable.tenPatchData.verticalStretchAreas.size > 0) {
                     json.writeValue("verticalStretchAreas", drawable.tenPatchData.verticalStretchAreas.toArray());
                 } else {
-                    var region = atlasData.getAtlas().findRegion(drawable.file.nameWithoutExtension());
-                    json.writeValue("verticalStretchAreas", new int[]{0, region.getRegionHeight() - 1});
+                    json.writeValue("verticalStretchAreas", new int[]{0, (int) Utils.imageDimensions(drawable.file).y - 1});
                 }
                 
                 json.writeValue("tiling", drawable.tenPatchData.tile);
@@ -1005,9 +957,6 @@ public class JsonData implements Json.Serializable {
         }
 
         json.writeObjectEnd();
-        fileHandle.writeString(json.prettyPrint(stringWriter.toString()), false, "UTF-8");
-        
-        return warnings;
     }
     
     private boolean customPropertyIsNotNull(CustomProperty customProperty) {
@@ -1316,6 +1265,7 @@ public class JsonData implements Json.Serializable {
         }
         freeTypeFonts.clear();
         freeTypeFonts.addAll(jsonData.freeTypeFonts);
+        invalidateReferences();
     }
 
     public Array<CustomClass> getCustomClasses() {
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.utils.Utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipException;
+
+/**
+ * Reads and writes single file project archives. An archive is a zip holding
+ * the project JSON and a "_data" folder with every resource of the project.
+ * Archives are opened through a zip FileSystem into a working folder that is
+ * kept for the session, so opening the archive again only extracts entries
+ * that changed.
+ * @author Raymond
+ */
+public class ProjectArchive {
+    public static final String EXTENSION = "scmz";
+    
+    public static boolean isArchive(FileHandle file) {
+        return file.extension().equalsIgnoreCase(EXTENSION);
+    }
+    
+    /**
+     * The folder the archive is extracted to while it is open.
+     * @param archive
+     * @return 
+     */
+    public static FileHandle getWorkingFolder(FileHandle archive) {
+        var hash = Integer.toHexString(archive.file().getAbsolutePath().hashCode());
+        return Main.appFolder.child("temp/archives/" + hash + "/");
+    }
+    
+    /**
+     * The data folder holding the resources of the open archive.
+     * @param archive
+     * @return 
+     */
+    public static FileHandle getDataFolder(FileHandle archive) {
+        return getWorkingFolder(archive).child(archive.nameWithoutExtension() + "_data/");
+    }
+    
+    /**
+     * Extracts the archive into its working folder. Entries that are already
+     * extracted and unchanged are skipped.
+     * @param archive
+     * @return The extracted project file.
+     * @throws IOException 
+     */
+    public static FileHandle extract(FileHandle archive) throws IOException {
+        var target = getWorkingFolder(archive).file().toPath().toAbsolutePath().normalize();
+        Files.createDirectories(target);
+        FileHandle projectFile = null;
+        
+        try (var fileSystem = FileSystems.newFileSystem(archive.file().toPath(), (ClassLoader) null)) {
+            var root = fileSystem.getPath("/");
+            List<Path> entries;
+            try (var stream = Files.walk(root)) {
+                entries = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            
+            for (var entry : entries) {
+                var destination = target.resolve(root.relativize(entry).toString()).normalize();
+                if (!destination.startsWith(target)) {
+                    throw new IOException("Invalid archive entry: " + entry);
+                }
+                
+                if (!ResourceRelocator.isUnchanged(entry, destination)) {
+                    Files.createDirectories(destination.getParent());
+                    Files.copy(entry, destination, StandardCopyOption.REPLACE_EXISTING);
+                    Files.setLastModifiedTime(destination, Files.getLastModifiedTime(entry));
+                }
+                
+                if (destination.getParent().equals(target) && ProjectData.isProjectFile(new FileHandle(destination.toFile()))) {
+                    projectFile = new FileHandle(destination.toFile());
+                }
+            }
+        }
+        
+        if (projectFile == null) {
+            throw new IOException("Archive does not contain a project: " + archive.path());
+        }
+        return projectFile;
+    }
+    
+    /**
+     * Writes the project and all of its resources to the archive. A copy of
+     * the previous archive is updated through a zip FileSystem, which copies
+     * unchanged entries raw when it is closed, so only the project and
+     * resources whose content changed are compressed again. The copy replaces
+     * the archive once it is complete.
+     * @param archive
+     * @param projectData
+     * @throws IOException 
+     */
+    public static void write(FileHandle archive, ProjectData projectData) throws IOException {
+        var target = archive.file().toPath().toAbsolutePath();
+        var temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.createDirectories(target.getParent());
+        
+        try {
+            try (var fileSystem = openCopy(target, temp)) {
+                writeEntries(fileSystem, archive.nameWithoutExtension(), projectData);
+            }
+            
+            Utils.moveAtomically(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Copies the archive and opens the copy as a zip FileSystem. A new zip is
+     * created instead if there is no readable archive.
+     * @param archive
+     * @param copy
+     * @return
+     * @throws IOException 
+     */
+    private static FileSystem openCopy(Path archive, Path copy) throws IOException {
+        if (Files.exists(archive)) {
+            Files.copy(archive, copy, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                return openZip(copy, false);
+            } catch (ZipException | ProviderNotFoundException e) {
+                //the previous archive can't be read, so a new one is written
+                Files.delete(copy);
+            }
+        }
+        return openZip(copy, true);
+    }
+    
+    private static FileSystem openZip(Path path, boolean create) throws IOException {
+        var env = new HashMap<String, String>();
+        env.put("create", Boolean.toString(create));
+        return FileSystems.newFileSystem(URI.create("jar:" + path.toUri()), env);
+    }
+    
+    /**
+     * Writes the project entry and every resource whose entry doesn't already
+     * hold the same content, then deletes entries that are no longer part of
+     * the project.
+     * @param fileSystem
+     * @param name
+     * @param projectData
+     * @throws IOException 
+     */
+    private static void writeEntries(FileSystem fileSystem, String name, ProjectData projectData) throws IOException {
+        var root = fileSystem.getPath("/");
+        var staleEntries = new ObjectSet<String>();
+        try (var stream = Files.walk(root)) {
+            stream.filter(Files::isRegularFile).forEach(path -> staleEntries.add(root.relativize(path).toString()));
+        }
+        
+        var projectEntry = name + "." + ProjectData.EXTENSION;
+        try (var outputStream = Files.newOutputStream(fileSystem.getPath(projectEntry))) {
+            projectData.writeProject(outputStream, false);
+        }
+        staleEntries.remove(projectEntry);
+        
+        var written = new ObjectSet<String>();
+        for (var file : projectData.getResourceFiles()) {
+            var entryName = name + "_data/" + file.name();
+            if (!written.add(entryName)) continue;
+            staleEntries.remove(entryName);
+            
+            var source = file.file().toPath();
+            var entry = fileSystem.getPath(entryName);
+            if (!hasSameContent(source, entry)) {
+                Files.createDirectories(entry.getParent());
+                Files.copy(source, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            
+            var modified = Files.getLastModifiedTime(source);
+            if (!modified.equals(Files.getLastModifiedTime(entry))) {
+                Files.setLastModifiedTime(entry, modified);
+            }
+        }
+        
+        for (var entryName : staleEntries) {
+            Files.delete(fileSystem.getPath(entryName));
+        }
+    }
+    
+    /**
+     * Returns true if the entry exists and its bytes are identical to the
+     * file.
+     * @param file
+     * @param entry
+     * @return
+     * @throws IOException 
+     */
+    static boolean hasSameContent(Path file, Path entry) throws IOException {
+        if (!Files.exists(entry) || Files.size(file) != Files.size(entry)) return false;
+        
+        try (var fileStream = Files.newInputStream(file); var entryStream = Files.newInputStream(entry)) {
+            var fileBuffer = new byte[65536];
+            var entryBuffer = new byte[65536];
+            int read;
+            while ((read = fileStream.readNBytes(fileBuffer, 0, fileBuffer.length)) > 0) {
+                if (entryStream.readNBytes(entryBuffer, 0, read) != read) return false;
+                if (!Arrays.equals(fileBuffer, 0, read, entryBuffer, 0, read)) return false;
+            }
+            return entryStream.read() == -1;
+        }
+    }
+}
@@ -36,9 +36,17 @@ import com.ray3k.skincomposer.data.DrawableData.DrawableType;
 import com.ray3k.skincomposer.data.JsonData.ExportFormat;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimRootGroup;
+import com.ray3k.skincomposer.utils.PathVerifier;
+import com.ray3k.skincomposer.utils.PrettyJsonStreamWriter;
+import com.ray3k.skincomposer.utils.UBJsonStreamWriter;
 import com.ray3k.skincomposer.utils.Utils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.Locale;
 
 import static com.ray3k.skincomposer.Main.*;
 
@@ -47,8 +55,11 @@ public class ProjectData implements Json.Serializable {
     private ObjectMap<String, Object> preferences;
     private FileHandle saveFile;
     private boolean changesSaved;
+    private int changeCount;
     private boolean newProject;
     private static final int MAX_RECENT_FILES = 5;
+    public static final String EXTENSION = "scmp";
+    public static final String BINARY_EXTENSION = "scmpb";
     private final JsonData jsonData;
     private final AtlasData atlasData;
     private String loadedVersion;
@@ -189,12 +200,16 @@ public class ProjectData implements Json.Serializable {
         }
     }
     
-    public void setMaxUndos(int maxUndos) {
-        preferences.put("maxUndos", maxUndos);
+    /**
+     * Sets the memory budget of the undo history in megabytes.
+     * @param undoMemory 
+     */
+    public void setUndoMemory(int undoMemory) {
+        preferences.put("undoMemory", undoMemory);
     }
     
-    public int getMaxUndos() {
-        return (int) preferences.get("maxUndos", 30);
+    public int getUndoMemory() {
+        return (int) preferences.get("undoMemory", 16);
     }
     
     public void setAllowingWelcome(boolean allow) {
@@ -270,9 +285,23 @@ public class ProjectData implements Json.Serializable {
         this.loadedVersion = loadedVersion;
     }
     
+    /**
+     * Returns a counter that is incremented whenever the project is marked as
+     * changed. Caches of data derived from styles and resources compare it to
+     * the value they were built with.
+     * @return 
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+    
     public void setChangesSaved(boolean changesSaved) {
         this.changesSaved = changesSaved;
         newProject = false;
+        if (!changesSaved) {
+            changeCount++;
+            projectJournal.changed();
+        }
         String title = "Skin Composer";
         if (saveFile != null && saveFile.exists()) {
             title += " - " + (isFullPathInRecentFiles() ? saveFile.path() : saveFile.nameWithoutExtension());
@@ -293,158 +322,313 @@ public class ProjectData implements Json.Serializable {
         FileHandle tempImportFolder = Main.appFolder.child("temp/" + getId() + "_data/");
         FileHandle localImportFolder;
         if (oldSave != null) {
-            localImportFolder = oldSave.sibling(oldSave.nameWithoutExtension() + "_data/");
+            localImportFolder = getDataFolder(oldSave);
         } else {
             localImportFolder = null;
         }
-        FileHandle targetFolder = newSave.sibling(newSave.nameWithoutExtension() + "_data/");
+        FileHandle targetFolder = getDataFolder(newSave);
+        var relocator = new ResourceRelocator();
         
         for (DrawableData drawableData : atlasData.getDrawables()) {
-            if (drawableData.file != null && drawableData.file.exists()) {
-                targetFolder.mkdirs();
-                //drawable files in the temp folder
-                if (drawableData.file.parent().equals(tempImportFolder)) {
-                    drawableData.file.moveTo(targetFolder);
-                    drawableData.file = targetFolder.child(drawableData.file.name());
-                }
-                //drawable files in the folder next to the old save
-                else if (localImportFolder != null && !localImportFolder.equals(targetFolder) && drawableData.file.parent().equals(localImportFolder)) {
-                    drawableData.file.copyTo(targetFolder);
-                    drawableData.file = targetFolder.child(drawableData.file.name());
-                }
+            if (drawableData.file != null) {
+                drawableData.file = planImportedFile(relocator, drawableData.file, tempImportFolder, localImportFolder, targetFolder);
             }
         }
         
         for (DrawableData drawableData : atlasData.getFontDrawables()) {
-            if (drawableData.file != null && drawableData.file.exists()) {
-                targetFolder.mkdirs();
-                //drawable files in the temp folder
-                if (drawableData.file.parent().equals(tempImportFolder)) {
-                    drawableData.file.moveTo(targetFolder);
-                    drawableData.file = targetFolder.child(drawableData.file.name());
-                }
-                //drawable files in the folder next to the old save
-                else if (localImportFolder != null && !localImportFolder.equals(targetFolder) && drawableData.file.parent().equals(localImportFolder)) {
-                    drawableData.file.copyTo(targetFolder);
-                    drawableData.file = targetFolder.child(drawableData.file.name());
-                }
+            if (drawableData.file != null) {
+                drawableData.file = planImportedFile(relocator, drawableData.file, tempImportFolder, localImportFolder, targetFolder);
             }
         }
         
         for (FontData fontData : jsonData.getFonts()) {
-            if (fontData.file.exists()) {
-                targetFolder.mkdirs();
-                
-                //font files in the temp folder
-                if (fontData.file.parent().equals(tempImportFolder)) {
-                    fontData.file.moveTo(targetFolder);
-                    fontData.file = targetFolder.child(fontData.file.name());
-                }
-                //font files in the data folder next to the old save
-                else if (localImportFolder != null && !localImportFolder.equals(targetFolder) && fontData.file.parent().equals(localImportFolder)) {
-                    fontData.file.copyTo(targetFolder);
-                    fontData.file = targetFolder.child(fontData.file.name());
-                }
-            }
+            fontData.file = planImportedFile(relocator, fontData.file, tempImportFolder, localImportFolder, targetFolder);
         }
         
         for (FreeTypeFontData fontData : jsonData.getFreeTypeFonts()) {
-            if (fontData.file != null && fontData.file.exists()) {
-                targetFolder.mkdirs();
-                
-                //font files in the temp folder
-                if (fontData.file.parent().equals(tempImportFolder)) {
-                    fontData.file.moveTo(targetFolder);
-                    fontData.file = targetFolder.child(fontData.file.name());
-                }
-                //font files in the data folder next to the old save
-                else if (localImportFolder != null && !localImportFolder.equals(targetFolder) && fontData.file.parent().equals(localImportFolder)) {
-                    fontData.file.copyTo(targetFolder);
-                    fontData.file = targetFolder.child(fontData.file.name());
-                }
+            if (fontData.file != null) {
+                fontData.file = planImportedFile(relocator, fontData.file, tempImportFolder, localImportFolder, targetFolder);
             }
         }
+        
+        executeRelocation(relocator, targetFolder);
+    }
+    
+    private FileHandle planImportedFile(ResourceRelocator relocator, FileHandle file, FileHandle tempImportFolder, FileHandle localImportFolder, FileHandle targetFolder) {
+        if (!file.exists()) return file;
+        
+        //files in the temp folder
+        if (file.parent().equals(tempImportFolder)) {
+            return relocator.move(file, targetFolder);
+        }
+        //files in the data folder next to the old save
+        else if (localImportFolder != null && !localImportFolder.equals(targetFolder) && file.parent().equals(localImportFolder)) {
+            return relocator.copy(file, targetFolder);
+        }
+        return file;
+    }
+    
+    private void executeRelocation(ResourceRelocator relocator, FileHandle targetFolder) {
+        try {
+            relocator.execute();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error copying resources to: " + targetFolder.path(), e);
+        }
     }
     
     public void makeResourcesRelative(FileHandle saveFile) {
-        FileHandle targetFolder = saveFile.sibling(saveFile.nameWithoutExtension() + "_data/");
+        FileHandle targetFolder = getDataFolder(saveFile);
+        var relocator = new ResourceRelocator();
         
         for (DrawableData drawableData : atlasData.getDrawables()) {
             if (drawableData.file != null && drawableData.file.exists() && !targetFolder.equals(drawableData.file.parent())) {
-                targetFolder.mkdirs();
-                drawableData.file.copyTo(targetFolder);
-                drawableData.file = targetFolder.child(drawableData.file.name());
+                drawableData.file = relocator.copy(drawableData.file, targetFolder);
             }
         }
         
         for (DrawableData drawableData : atlasData.getFontDrawables()) {
             if (drawableData.file.exists() && !targetFolder.equals(drawableData.file.parent())) {
-                targetFolder.mkdirs();
-                drawableData.file.copyTo(targetFolder);
-                drawableData.file = targetFolder.child(drawableData.file.name());
+                drawableData.file = relocator.copy(drawableData.file, targetFolder);
             }
         }
         
         for (FontData fontData : jsonData.getFonts()) {
             if (fontData.file.exists() && !targetFolder.equals(fontData.file.parent())) {
-                fontData.file.copyTo(targetFolder);
-                fontData.file = targetFolder.child(fontData.file.name());
+                fontData.file = relocator.copy(fontData.file, targetFolder);
             }
         }
         
         for (FreeTypeFontData fontData : jsonData.getFreeTypeFonts()) {
             if (fontData.file != null && fontData.file.exists() && !targetFolder.equals(fontData.file.parent())) {
-                fontData.file.copyTo(targetFolder);
-                fontData.file = targetFolder.child(fontData.file.name());
+                fontData.file = relocator.copy(fontData.file, targetFolder);
             }
         }
+        
+        executeRelocation(relocator, targetFolder);
     }
     
     public void makeResourcesRelative() {
         makeResourcesRelative(saveFile);
     }
     
+    /**
+     * The folder that holds the resources of a project saved to the specified
+     * file. Archives keep their resources in the working folder they are
+     * extracted to.
+     * @param saveFile
+     * @return 
+     */
+    public FileHandle getDataFolder(FileHandle saveFile) {
+        if (ProjectArchive.isArchive(saveFile)) {
+            return ProjectArchive.getDataFolder(saveFile);
+        } else {
+            return saveFile.sibling(saveFile.nameWithoutExtension() + "_data/");
+        }
+    }
+    
+    /**
+     * Returns every existing file referenced by drawables and fonts.
+     * @return 
+     */
+    public Array<FileHandle> getResourceFiles() {
+        var files = new Array<FileHandle>();
+        for (DrawableData drawableData : atlasData.getDrawables()) {
+            if (drawableData.file != null && drawableData.file.exists()) files.add(drawableData.file);
+        }
+        
+        for (DrawableData drawableData : atlasData.getFontDrawables()) {
+            if (drawableData.file != null && drawableData.file.exists()) files.add(drawableData.file);
+        }
+        
+        for (FontData fontData : jsonData.getFonts()) {
+            if (fontData.file != null && fontData.file.exists()) files.add(fontData.file);
+        }
+        
+        for (FreeTypeFontData fontData : jsonData.getFreeTypeFonts()) {
+            if (fontData.file != null && fontData.file.exists()) files.add(fontData.file);
+        }
+        return files;
+    }
+    
     public void save(FileHandle file) {
         moveImportedFiles(saveFile, file);
         
-        if (projectData.areResourcesRelative()) {
+        if (projectData.areResourcesRelative() || ProjectArchive.isArchive(file)) {
             makeResourcesRelative(file);
         }
         
         saveFile = file;
+        
+        try {
+            if (ProjectArchive.isArchive(file)) {
+                ProjectArchive.write(file, this);
+            } else {
+                Utils.writeAtomically(file, outputStream -> writeProject(outputStream, isBinaryExtension(file)));
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing project file: " + file.path(), e);
+        }
+        
+        projectJournal.saved(file);
         putRecentFile(file.path());
-        file.writeString(json.prettyPrint(this), false, "UTF8");
         setChangesSaved(true);
     }
     
+    /**
+     * Serializes the project to the stream as UBJSON or as JSON text. The
+     * stream is flushed but not closed.
+     * @param outputStream
+     * @param binary
+     * @throws IOException 
+     */
+    public void writeProject(OutputStream outputStream, boolean binary) throws IOException {
+        if (binary) {
+            var writer = new UBJsonStreamWriter(outputStream);
+            json.setWriter(writer);
+            json.writeValue(this, ProjectData.class, null);
+            writer.flush();
+            return;
+        }
+        
+        var writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        json.setWriter(isPrettyPrintingProjects() ? new PrettyJsonStreamWriter(writer) : writer);
+        json.writeValue(this, ProjectData.class, null);
+        writer.flush();
+    }
+    
     public void save() {
         save(saveFile);
     }
     
     public void load(FileHandle file) {
-        ProjectData instance = json.fromJson(ProjectData.class, file.reader("UTF8"));
+        load(file, file);
+    }
+    
+    /**
+     * Loads the project data stored in source as if it was opened from file.
+     * Used to restore autosaved snapshots.
+     * @param source
+     * @param file 
+     */
+    public void load(FileHandle source, FileHandle file) {
+        readProject(source, file);
+        
+        putRecentFile(file.path());
+        setLastOpenSavePath(file.parent().path() + "/");
+        
+        setChangesSaved(true);
+        projectJournal.open(file);
+        
+        //fonts, the atlas and path verification complete in the background
+        projectLoader.start();
+    }
+    
+    /**
+     * Reads the project data without loading its resources, journaling changes
+     * or adding it to the recent files. Used to export from the command line.
+     * @param file 
+     */
+    public void readProject(FileHandle file) {
+        readProject(file, file);
+        setChangesSaved(true);
+    }
+    
+    /**
+     * Reads the project data stored in source as if it was read from file
+     * without loading its resources. Used to restore autosaved snapshots and to
+     * benchmark the project formats.
+     * @param source
+     * @param file 
+     */
+    public void readProject(FileHandle source, FileHandle file) {
+        if (ProjectArchive.isArchive(file)) {
+            try {
+                var extracted = ProjectArchive.extract(file);
+                if (source.equals(file)) source = extracted;
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Error opening project archive: " + file.path(), e);
+            }
+        }
+        
+        ProjectData instance;
+        if (isBinaryProjectFile(source)) {
+            instance = json.readValue(ProjectData.class, new UBJsonReader().parse(source));
+        } else {
+            instance = json.fromJson(ProjectData.class, source.reader("UTF8"));
+        }
         newProject = instance.newProject;
         jsonData.set(instance.jsonData);
-        for (FreeTypeFontData font : jsonData.getFreeTypeFonts()) {
-            font.createBitmapFont();
-        }
         atlasData.set(instance.atlasData);
         preferences.clear();
         preferences.putAll(instance.preferences);
         
         saveFile = file;
-        putRecentFile(file.path());
-        setLastOpenSavePath(file.parent().path() + "/");
         atlasData.atlasCurrent = false;
         loadedVersion = instance.loadedVersion;
         
         correctFilePaths();
+    }
+    
+    public static boolean isProjectFile(FileHandle file) {
+        var extension = file.extension().toLowerCase(Locale.ROOT);
+        return extension.equals(EXTENSION) || extension.equals(BINARY_EXTENSION) || extension.equals(ProjectArchive.EXTENSION);
+    }
+    
+    private static boolean isBinaryExtension(FileHandle file) {
+        return file.extension().equalsIgnoreCase(BINARY_EXTENSION);
+    }
+    
+    /**
+     * Returns true if the file contains a binary UBJSON project regardless of
+     * its extension. Text projects start with "{" followed by whitespace, a
+     * quote or a key while UBJSON follows it with a length marker and a binary
+     * length.
+     * @param file
+     * @return 
+     */
+    public static boolean isBinaryProjectFile(FileHandle file) {
+        var header = new byte[3];
+        try (var inputStream = file.read()) {
+            if (inputStream.read(header) == header.length && header[0] == '{') {
+                var marker = header[1];
+                if (marker == 'i' || marker == 'U' || marker == 'I' || marker == 'l' || marker == 'L') {
+                    return header[2] >= 0 && header[2] < ' ';
+                }
+            }
+        } catch (IOException e) {
+            return isBinaryExtension(file);
+        }
+        return false;
+    }
+    
+    /**
+     * Converts a project between the text and binary formats based on the
+     * extension of the target. The project is not loaded.
+     * @param source
+     * @param target 
+     */
+    public void convertProjectFile(FileHandle source, FileHandle target) {
+        var value = isBinaryProjectFile(source) ? new UBJsonReader().parse(source) : new JsonReader().parse(source);
         
-        if (verifyDrawablePaths().size == 0 && verifyFontPaths().size == 0) {
-            atlasData.produceAtlas();
-            rootTable.populate();
+        try {
+            Utils.writeAtomically(target, outputStream -> {
+                if (isBinaryExtension(target)) {
+                    var writer = new UBJsonWriter(outputStream);
+                    writer.value(value);
+                    writer.flush();
+                } else {
+                    var writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+                    if (isPrettyPrintingProjects()) {
+                        value.prettyPrint(JsonWriter.OutputType.minimal, writer);
+                    } else {
+                        writer.write(value.toJson(JsonWriter.OutputType.minimal));
+                    }
+                    writer.flush();
+                }
+            });
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error converting project file: " + source.path(), e);
         }
-        setChangesSaved(true);
     }
     
     /**
@@ -454,43 +638,50 @@ public class ProjectData implements Json.Serializable {
      * Returns an empty list if there are no errors.
      */
     public Array<DrawableData> verifyDrawablePaths() {
+        return verifyDrawablePaths(new PathVerifier());
+    }
+    
+    /**
+     * Checks every drawable path for existence. Errors are reported as a list
+     * of DrawableDatas.
+     * @param verifier Caches directory listings between verification calls.
+     * @return A list of all DrawableDatas that must have their paths resolved.
+     * Returns an empty list if there are no errors.
+     */
+    public Array<DrawableData> verifyDrawablePaths(PathVerifier verifier) {
+        var drawables = new Array<>(atlasData.getDrawables());
+        drawables.addAll(atlasData.getFontDrawables());
+        return verifyDrawablePaths(drawables, verifier);
+    }
+    
+    /**
+     * Checks the paths of the specified drawables for existence. Doesn't
+     * iterate the project's lists, so it may be called off of the application
+     * thread with copies of them.
+     * @param drawables
+     * @param verifier Caches directory listings between verification calls.
+     * @return A list of all DrawableDatas that must have their paths resolved.
+     * Returns an empty list if there are no errors.
+     */
+    public Array<DrawableData> verifyDrawablePaths(Array<DrawableData> drawables, PathVerifier verifier) {
         Array<DrawableData> errors = new Array<>();
         
         if (!areResourcesRelative()) {
-            for (DrawableData drawable : atlasData.getDrawables()) {
-                if (drawable.type != DrawableType.CUSTOM && drawable.type != DrawableType.PIXEL && (drawable.file == null || !drawable.file.exists())) {
-                    errors.add(drawable);
-                }
-            }
-            
-            for (DrawableData drawable : atlasData.getFontDrawables()) {
-                if (drawable.type != DrawableType.CUSTOM && drawable.type != DrawableType.PIXEL && (drawable.file == null || !drawable.file.exists())) {
+            for (DrawableData drawable : drawables) {
+                if (drawable.type != DrawableType.CUSTOM && drawable.type != DrawableType.PIXEL && (drawable.file == null || !verifier.exists(drawable.file))) {
                     errors.add(drawable);
                 }
             }
         } else {
-            FileHandle targetFolder = saveFile.sibling(saveFile.nameWithoutExtension() + "_data/");
+            FileHandle targetFolder = getDataFolder(saveFile);
             
-            for (DrawableData drawable : atlasData.getDrawables()) {
+            for (DrawableData drawable : drawables) {
                 if (drawable.type != DrawableType.CUSTOM && drawable.type != DrawableType.PIXEL) {
                     if (drawable.file == null) {
                         errors.add(drawable);
                     } else {
                         FileHandle localFile = targetFolder.child(drawable.file.name());
-                        if (!localFile.exists()) {
-                            errors.add(drawable);
-                        }
-                    }
-                }
-            }
-            
-            for (DrawableData drawable : atlasData.getFontDrawables()) {
-                if (drawable.type != DrawableType.CUSTOM && drawable.type != DrawableType.PIXEL) {
-                    if (drawable.file == null) {
-                        errors.add(drawable);
-                    } else {
-                        FileHandle localFile = targetFolder.child(drawable.file.name());
-                        if (!localFile.exists()) {
+                        if (!verifier.exists(localFile)) {
                             errors.add(drawable);
                         }
                     }
@@ -501,23 +692,31 @@ public class ProjectData implements Json.Serializable {
     }
     
     public Array<FontData> verifyFontPaths() {
+        return verifyFontPaths(new PathVerifier());
+    }
+    
+    public Array<FontData> verifyFontPaths(PathVerifier verifier) {
+        return verifyFontPaths(new Array<>(jsonData.getFonts()), verifier);
+    }
+    
+    public Array<FontData> verifyFontPaths(Array<FontData> fonts, PathVerifier verifier) {
         Array<FontData> errors = new Array<>();
         
         if (!areResourcesRelative()) {
-            for (FontData font : jsonData.getFonts()) {
-                if (font.file == null || !font.file.exists()) {
+            for (FontData font : fonts) {
+                if (font.file == null || !verifier.exists(font.file)) {
                     errors.add(font);
                 }
             }
         } else {
-            FileHandle targetFolder = saveFile.sibling(saveFile.nameWithoutExtension() + "_data/");
+            FileHandle targetFolder = getDataFolder(saveFile);
             
-            for (FontData font : jsonData.getFonts()) {
+            for (FontData font : fonts) {
                 if (font.file == null) {
                     errors.add(font);
                 } else {
                     FileHandle localFile = targetFolder.child(font.file.name());
-                    if (!localFile.exists()) {
+                    if (!verifier.exists(localFile)) {
                         errors.add(font);
                     }
                 }
@@ -527,21 +726,29 @@ public class ProjectData implements Json.Serializable {
     }
     
     public Array<FreeTypeFontData> verifyFreeTypeFontPaths() {
+        return verifyFreeTypeFontPaths(new PathVerifier());
+    }
+    
+    public Array<FreeTypeFontData> verifyFreeTypeFontPaths(PathVerifier verifier) {
+        return verifyFreeTypeFontPaths(new Array<>(jsonData.getFreeTypeFonts()), verifier);
+    }
+    
+    public Array<FreeTypeFontData> verifyFreeTypeFontPaths(Array<FreeTypeFontData> fonts, PathVerifier verifier) {
         Array<FreeTypeFontData> errors = new Array<>();
         
         if (!areResourcesRelative()) {
-            for (var font : jsonData.getFreeTypeFonts()) {
-                if (font.useCustomSerializer && (font.file == null || !font.file.exists())) {
+            for (var font : fonts) {
+                if (font.useCustomSerializer && (font.file == null || !verifier.exists(font.file))) {
                     errors.add(font);
                 }
             }
         } else {
-            FileHandle targetFolder = saveFile.sibling(saveFile.nameWithoutExtension() + "_data/");
+            FileHandle targetFolder = getDataFolder(saveFile);
             
-            for (var font : jsonData.getFreeTypeFonts()) {
+            for (var font : fonts) {
                 if (font.file != null) {
                     FileHandle localFile = targetFolder.child(font.file.name());
-                    if (!localFile.exists()) {
+                    if (!verifier.exists(localFile)) {
                         errors.add(font);
                     }
                 } else if (font.useCustomSerializer) {
@@ -553,33 +760,34 @@ public class ProjectData implements Json.Serializable {
     }
     
     private void correctFilePaths() {
-        FileHandle targetFolder = saveFile.sibling(saveFile.nameWithoutExtension() + "_data/");
+        FileHandle targetFolder = getDataFolder(saveFile);
         
-        boolean resourcesRelative = projectData.areResourcesRelative();
+        boolean resourcesRelative = projectData.areResourcesRelative() || ProjectArchive.isArchive(saveFile);
+        var verifier = new PathVerifier();
         
         if (targetFolder.exists()) {
             for (DrawableData drawableData : atlasData.getDrawables()) {
-                if (resourcesRelative || drawableData.file != null && !drawableData.file.exists()) {
+                if (resourcesRelative || drawableData.file != null && !verifier.exists(drawableData.file)) {
                     FileHandle newFile = targetFolder.child(drawableData.file.name());
-                    if (newFile.exists()) {
+                    if (verifier.exists(newFile)) {
                         drawableData.file = newFile;
                     }
                 }
             }
             
             for (DrawableData drawableData : atlasData.getFontDrawables()) {
-                if (resourcesRelative || drawableData.file != null && !drawableData.file.exists()) {
+                if (resourcesRelative || drawableData.file != null && !verifier.exists(drawableData.file)) {
                     FileHandle newFile = targetFolder.child(drawableData.file.name());
-                    if (newFile.exists()) {
+                    if (verifier.exists(newFile)) {
                         drawableData.file = newFile;
                     }
                 }
             }
             
             for (FontData fontData : jsonData.getFonts()) {
-                if (resourcesRelative || !fontData.file.exists()) {
+                if (resourcesRelative || !verifier.exists(fontData.file)) {
                     FileHandle newFile = targetFolder.child(fontData.file.name());
-                    if (newFile.exists()) {
+                    if (verifier.exists(newFile)) {
                         fontData.file = newFile;
                     }
                 }
@@ -595,12 +803,13 @@ public class ProjectData implements Json.Serializable {
         preferences.clear();
 
         randomizeId();
-        setMaxUndos(30);
+        setUndoMemory(16);
         setResourcesRelative(false);
         
         jsonData.clear();
         atlasData.clear();
         saveFile = null;
+        projectJournal.close();
         DialogSceneComposerModel.rootActor = null;
         
         if (Main.atlasData != null) atlasData.produceAtlas();
@@ -638,6 +847,15 @@ public class ProjectData implements Json.Serializable {
         DialogSceneComposerModel.rootActor = json.readValue("sceneComposer", SimRootGroup.class, jsonValue);
     }
 
+    /**
+     * Returns the Json configured to read and write project data. Only use it
+     * on the application thread.
+     * @return 
+     */
+    public Json getJson() {
+        return json;
+    }
+    
     public JsonData getJsonData() {
         return jsonData;
     }
@@ -780,6 +998,15 @@ public class ProjectData implements Json.Serializable {
         preferences.put("preview-bg-color", color);
     }
 
+    public boolean isPrettyPrintingProjects() {
+        return generalPref.getBoolean("pretty-print-projects", true);
+    }
+    
+    public void setPrettyPrintingProjects(boolean prettyPrint) {
+        generalPref.putBoolean("pretty-print-projects", prettyPrint);
+        generalPref.flush();
+    }
+
     public boolean isFullPathInRecentFiles() {
         return generalPref.getBoolean("recent-fullpath", false);
     }
@@ -796,7 +1023,7 @@ public class ProjectData implements Json.Serializable {
      * @return 
      */
     public boolean resourceExists(FileHandle file) {
-        FileHandle targetDirectory = (saveFile != null) ? saveFile.sibling(saveFile.nameWithoutExtension() + "_data/") : Main.appFolder.child("temp/" + getId() + "_data/");
+        FileHandle targetDirectory = (saveFile != null) ? getDataFolder(saveFile) : Main.appFolder.child("temp/" + getId() + "_data/");
         if (!areResourcesRelative()) {
             if (!file.exists() && !targetDirectory.child(file.name()).exists()) {
                 return false;
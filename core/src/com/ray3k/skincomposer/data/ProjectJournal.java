@@ -0,0 +1,551 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+import com.badlogic.gdx.utils.Timer;
+import com.ray3k.skincomposer.Undoable;
+import com.ray3k.skincomposer.utils.Utils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Autosaves the open project by appending each edit reported by the
+ * UndoableManager to a line-delimited journal next to the project file.
+ * Property edits are recorded as the new value and structural edits as the
+ * styles of the widget classes they change, so the work scales with the edit
+ * instead of the project. Changes made outside of the undo history can't be
+ * described by a record, so they schedule a binary snapshot of the project
+ * instead, which also compacts the journal. All file access happens on a
+ * background thread.
+ * @author Raymond
+ */
+public class ProjectJournal {
+    public static final String JOURNAL_EXTENSION = ".journal";
+    public static final String SNAPSHOT_EXTENSION = ".autosave";
+    private static final float SNAPSHOT_INTERVAL = 15f;
+    private static final int MAX_RECORDS = 500;
+    private final ExecutorService executor;
+    private FileHandle projectFile;
+    private boolean journalStarted;
+    private boolean snapshotPending;
+    private boolean recording;
+    private int records;
+    /**
+     * The style that owns each StyleProperty, rebuilt when a property is not
+     * found in the style it is mapped to.
+     */
+    private final IdentityMap<StyleProperty, StyleData> propertyStyles = new IdentityMap<>();
+
+    public ProjectJournal() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "project-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Timer.schedule(new Timer.Task() {
+            @Override
+            public void run() {
+                if (snapshotPending) {
+                    snapshot();
+                }
+            }
+        }, SNAPSHOT_INTERVAL, SNAPSHOT_INTERVAL);
+    }
+    
+    public static FileHandle journalFile(FileHandle projectFile) {
+        return projectFile.sibling(projectFile.name() + JOURNAL_EXTENSION);
+    }
+    
+    public static FileHandle snapshotFile(FileHandle projectFile) {
+        return projectFile.sibling(projectFile.name() + SNAPSHOT_EXTENSION);
+    }
+    
+    /**
+     * Starts journaling changes made to the project saved at the specified
+     * file. Existing recovery data is left untouched until it is recovered or
+     * discarded.
+     * @param projectFile 
+     */
+    public void open(FileHandle projectFile) {
+        this.projectFile = projectFile;
+        journalStarted = false;
+        snapshotPending = false;
+        records = 0;
+        propertyStyles.clear();
+    }
+    
+    /**
+     * Stops journaling. Used for new projects that have no file to journal
+     * against.
+     */
+    public void close() {
+        projectFile = null;
+        propertyStyles.clear();
+    }
+    
+    /**
+     * Called whenever the project is marked as changed. Changes made outside
+     * of record(Undoable, Runnable) can't be described by a record and
+     * schedule a snapshot.
+     */
+    public void changed() {
+        if (projectFile != null && !recording) {
+            snapshotPending = true;
+        }
+    }
+    
+    /**
+     * Runs an edit that performs, undoes or redoes the undoable and journals
+     * the state it leaves behind. Changes reported while the edit runs are
+     * attributed to the undoable. If the edit fails, a snapshot is scheduled
+     * instead.
+     * @param undoable
+     * @param edit 
+     */
+    public void record(Undoable undoable, Runnable edit) {
+        recording = true;
+        try {
+            edit.run();
+        } catch (RuntimeException e) {
+            recording = false;
+            changed();
+            throw e;
+        }
+        recording = false;
+        record(undoable);
+    }
+    
+    private void record(Undoable undoable) {
+        //records written now would be superseded by the pending snapshot
+        if (projectFile == null || snapshotPending) return;
+        
+        var line = createRecord(undoable);
+        if (line == null) {
+            snapshotPending = true;
+            return;
+        }
+        
+        records++;
+        if (records >= MAX_RECORDS) {
+            snapshotPending = true;
+        }
+        
+        var file = projectFile;
+        var header = journalStarted ? null : createHeader(false, file);
+        journalStarted = true;
+        
+        executor.execute(() -> {
+            try {
+                var journal = journalFile(file);
+                if (header != null) {
+                    Utils.writeAtomically(journal, outputStream -> outputStream.write(header.getBytes(StandardCharsets.UTF_8)));
+                }
+                
+                try (var channel = FileChannel.open(journal.file().toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    channel.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                Gdx.app.error(ProjectJournal.class.getName(), "Error writing project journal: " + file.path(), e);
+            }
+        });
+    }
+    
+    /**
+     * Writes the entire project to the snapshot file and restarts the journal
+     * on top of it. The project is serialized immediately on the calling thread
+     * and written to disk in the background.
+     */
+    public void snapshot() {
+        if (projectFile == null) return;
+        
+        var bytes = new ByteArrayOutputStream();
+        try {
+            projectData.writeProject(bytes, true);
+        } catch (IOException e) {
+            Gdx.app.error(ProjectJournal.class.getName(), "Error serializing project snapshot.", e);
+            return;
+        }
+        
+        snapshotPending = false;
+        records = 0;
+        journalStarted = true;
+        
+        var file = projectFile;
+        executor.execute(() -> {
+            try {
+                var snapshot = snapshotFile(file);
+                Utils.writeAtomically(snapshot, outputStream -> bytes.writeTo(outputStream));
+                var header = createHeader(true, snapshot);
+                Utils.writeAtomically(journalFile(file), outputStream -> outputStream.write(header.getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                Gdx.app.error(ProjectJournal.class.getName(), "Error writing project snapshot: " + file.path(), e);
+            }
+        });
+    }
+    
+    /**
+     * Restarts the journal after the project was saved to the specified file.
+     * Recovery data of the previous file is deleted as well.
+     * @param projectFile 
+     */
+    public void saved(FileHandle projectFile) {
+        if (this.projectFile != null && !this.projectFile.equals(projectFile)) {
+            discard(this.projectFile);
+        }
+        open(projectFile);
+        discard(projectFile);
+    }
+    
+    /**
+     * Deletes the journal and snapshot of the open project. Called when the
+     * user declines recovery or chooses not to save changes.
+     */
+    public void discard() {
+        if (projectFile == null) return;
+        
+        open(projectFile);
+        discard(projectFile);
+    }
+    
+    private void discard(FileHandle projectFile) {
+        executor.execute(() -> {
+            journalFile(projectFile).delete();
+            snapshotFile(projectFile).delete();
+        });
+    }
+    
+    /**
+     * Returns true if the project file has a valid journal or a snapshot that
+     * is newer than the project itself.
+     * @param projectFile
+     * @return 
+     */
+    public static boolean hasRecoveryData(FileHandle projectFile) {
+        var snapshot = snapshotFile(projectFile);
+        return readBase(projectFile) != null || snapshot.exists() && snapshot.lastModified() > projectFile.lastModified();
+    }
+    
+    /**
+     * Loads the newest base of the project, either the project file itself or
+     * the snapshot, and replays the journal on top of it. The project is left
+     * marked as unsaved.
+     * @param projectFile 
+     */
+    public void recover(FileHandle projectFile) {
+        var base = readBase(projectFile);
+        var journal = base != null;
+        if (base == null) {
+            base = snapshotFile(projectFile);
+        }
+        
+        projectData.load(base, projectFile);
+        
+        if (journal) {
+            try (var reader = new BufferedReader(journalFile(projectFile).reader("UTF8"))) {
+                var jsonReader = new JsonReader();
+                reader.readLine();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    JsonValue record;
+                    try {
+                        record = jsonReader.parse(line);
+                    } catch (Exception e) {
+                        //the last record may be incomplete if the application was terminated while writing it
+                        break;
+                    }
+                    applyRecord(record);
+                }
+                jsonData.invalidateReferences();
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Error reading project journal: " + projectFile.path(), e);
+            }
+        }
+        
+        open(projectFile);
+        projectData.setChangesSaved(false);
+        snapshotPending = true;
+    }
+    
+    /**
+     * Shuts down the journal thread, waiting briefly for queued writes.
+     */
+    public void dispose() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static String createHeader(boolean snapshot, FileHandle base) {
+        var writer = new StringWriter();
+        try {
+            new JsonWriter(writer).object()
+                    .set("base", snapshot ? "snapshot" : "project")
+                    .set("length", base.length())
+                    .set("modified", base.lastModified())
+                    .pop();
+        } catch (IOException e) {
+            throw new GdxRuntimeException(e);
+        }
+        return writer.toString() + "\n";
+    }
+    
+    /**
+     * Returns the file the journal of the specified project was started from
+     * if it is still unchanged on disk, otherwise null.
+     * @param projectFile
+     * @return 
+     */
+    private static FileHandle readBase(FileHandle projectFile) {
+        var journal = journalFile(projectFile);
+        if (!journal.exists()) return null;
+        
+        try (var reader = new BufferedReader(journal.reader("UTF8"))) {
+            var line = reader.readLine();
+            if (line == null) return null;
+            
+            var header = new JsonReader().parse(line);
+            var base = header.getString("base").equals("snapshot") ? snapshotFile(projectFile) : projectFile;
+            if (base.exists() && base.length() == header.getLong("length") && base.lastModified() == header.getLong("modified")) {
+                return base;
+            }
+        } catch (Exception e) {
+            Gdx.app.error(ProjectJournal.class.getName(), "Error reading project journal: " + journal.path(), e);
+        }
+        return null;
+    }
+    
+    /**
+     * Describes the state left behind by the undoable as lines of JSON, one
+     * per record. Returns null if the undoable can't be described by records.
+     * @param undoable
+     * @return 
+     */
+    private String createRecord(Undoable undoable) {
+        var property = undoable.getProperty();
+        var classes = undoable.getChangedClasses();
+        if (property == null && classes == null) return null;
+        
+        var writer = new StringWriter();
+        try {
+            if (property != null && !writeProperty(writer, property)) return null;
+            
+            if (classes != null) {
+                for (var clazz : classes) {
+                    writeClass(writer, clazz);
+                }
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException(e);
+        }
+        
+        return writer.toString();
+    }
+    
+    /**
+     * Writes the current value of the property as a single line of JSON.
+     * Returns false if the property can't be located in the project.
+     * @param writer
+     * @param property
+     * @return
+     * @throws IOException 
+     */
+    private boolean writeProperty(StringWriter writer, Object property) throws IOException {
+        var jsonWriter = new JsonWriter(writer);
+        jsonWriter.setOutputType(OutputType.json);
+        
+        if (property instanceof StyleProperty) {
+            var styleProperty = (StyleProperty) property;
+            var style = findStyle(styleProperty);
+            if (style == null) return false;
+            
+            jsonWriter.object()
+                    .set("type", "property")
+                    .set("class", style.clazz.getName())
+                    .set("style", style.name)
+                    .set("property", styleProperty.name)
+                    .set("value", styleProperty.value)
+                    .pop();
+        } else if (property instanceof CustomProperty) {
+            var customProperty = (CustomProperty) property;
+            var style = customProperty.getParentStyle();
+            if (style == null || style.getParentClass() == null) return false;
+            
+            jsonWriter.object()
+                    .set("type", "custom-property")
+                    .set("class", style.getParentClass().getDisplayName())
+                    .set("style", style.getName())
+                    .set("property", customProperty.getName())
+                    .set("value", customProperty.getValue())
+                    .pop();
+        } else {
+            return false;
+        }
+        
+        writer.write("\n");
+        return true;
+    }
+    
+    /**
+     * Writes all styles of the widget class, or all custom classes if clazz is
+     * CustomClass.class, as a single line of JSON.
+     * @param writer
+     * @param clazz
+     * @throws IOException 
+     */
+    private static void writeClass(StringWriter writer, Class clazz) throws IOException {
+        var jsonWriter = new JsonWriter(writer);
+        jsonWriter.setOutputType(OutputType.json);
+        var json = projectData.getJson();
+        
+        if (clazz == CustomClass.class) {
+            jsonWriter.object()
+                    .set("type", "custom-classes")
+                    .json("value", json.toJson(jsonData.getCustomClasses(), Array.class, CustomClass.class))
+                    .pop();
+        } else {
+            jsonWriter.object()
+                    .set("type", "styles")
+                    .set("class", clazz.getName())
+                    .json("value", json.toJson(jsonData.getClassStyleMap().get(clazz), Array.class))
+                    .pop();
+        }
+        
+        writer.write("\n");
+    }
+    
+    /**
+     * Returns the style in the project that holds the property or null if it
+     * was deleted.
+     * @param property
+     * @return 
+     */
+    private StyleData findStyle(StyleProperty property) {
+        var style = propertyStyles.get(property);
+        if (style == null || style.properties.get(property.name) != property) {
+            propertyStyles.clear();
+            for (var styles : jsonData.getClassStyleMap().values()) {
+                for (var styleData : styles) {
+                    for (var styleProperty : styleData.properties.values()) {
+                        propertyStyles.put(styleProperty, styleData);
+                    }
+                }
+            }
+            return propertyStyles.get(property);
+        }
+        
+        //properties of deleted styles may still be changed by the undo history
+        return jsonData.getClassStyleMap().get(style.clazz).contains(style, true) ? style : null;
+    }
+    
+    private static void applyRecord(JsonValue record) {
+        var type = record.getString("type");
+        var json = projectData.getJson();
+        
+        if (type.equals("custom-classes")) {
+            Array<CustomClass> customClasses = json.readValue(Array.class, CustomClass.class, record.get("value"));
+            jsonData.getCustomClasses().clear();
+            jsonData.getCustomClasses().addAll(customClasses);
+            return;
+        }
+        
+        var className = record.getString("class");
+        if (type.equals("styles")) {
+            for (var entry : jsonData.getClassStyleMap().entries()) {
+                if (entry.key.getName().equals(className)) {
+                    Array<StyleData> styles = json.readValue(Array.class, record.get("value"));
+                    for (var style : styles) {
+                        style.jsonData = jsonData;
+                    }
+                    entry.value.clear();
+                    entry.value.addAll(styles);
+                }
+            }
+            return;
+        }
+        
+        var value = readValue(record.get("value"));
+        var styleName = record.getString("style");
+        var propertyName = record.getString("property");
+        
+        if (type.equals("property")) {
+            for (var entry : jsonData.getClassStyleMap().entries()) {
+                if (entry.key.getName().equals(className)) {
+                    for (var style : entry.value) {
+                        if (style.name.equals(styleName) && style.properties.containsKey(propertyName)) {
+                            style.properties.get(propertyName).value = value;
+                        }
+                    }
+                }
+            }
+        } else {
+            for (var customClass : jsonData.getCustomClasses()) {
+                if (customClass.getDisplayName().equals(className)) {
+                    var style = customClass.getStyle(styleName);
+                    if (style != null && style.getProperty(propertyName) != null) {
+                        style.getProperty(propertyName).setValue(value);
+                    }
+                }
+            }
+        }
+    }
+    
+    private static Object readValue(JsonValue value) {
+        if (value == null || value.isNull()) {
+            return null;
+        } else if (value.isBoolean()) {
+            return value.asBoolean();
+        } else if (value.isNumber()) {
+            return value.asDouble();
+        } else {
+            return value.asString();
+        }
+    }
+}
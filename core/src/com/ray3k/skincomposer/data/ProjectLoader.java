@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.scenes.scene2d.ui.SelectBox;
+import com.badlogic.gdx.scenes.scene2d.ui.TextTooltip;
+import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.utils.PathVerifier;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Loads the resources of a project after its data has been deserialized so
+ * that the class and style lists become interactive immediately. Paths are
+ * verified and the atlas is packed on a background thread, then the drawables
+ * are created and the FreeType fonts are generated one per frame on the
+ * application thread. Progress is shown in the status bar and the preview is
+ * refreshed as resources arrive.
+ * @author Raymond
+ */
+public class ProjectLoader {
+    private final ExecutorService executor;
+    private final Array<FreeTypeFontData> pendingFonts;
+    private final Array<Runnable> loadedRunnables;
+    private int generation;
+    private boolean loading;
+    private boolean atlasReady;
+    private int fontTotal;
+
+    public ProjectLoader() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "project-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pendingFonts = new Array<>();
+        loadedRunnables = new Array<>();
+        atlasReady = true;
+    }
+    
+    /**
+     * Starts loading the resources of the project that was just loaded. Must
+     * be called on the application thread.
+     */
+    public void start() {
+        var id = ++generation;
+        loading = true;
+        atlasReady = false;
+        pendingFonts.clear();
+        pendingFonts.addAll(jsonData.getFreeTypeFonts());
+        fontTotal = pendingFonts.size;
+        atlasData.disposeAtlas();
+        setStatus("Verifying resources...");
+        
+        //the interface keeps iterating the project's arrays, so the worker gets copies
+        var drawables = new Array<>(atlasData.getDrawables());
+        drawables.addAll(atlasData.getFontDrawables());
+        var fonts = new Array<>(jsonData.getFonts());
+        var freeTypeFonts = new Array<>(jsonData.getFreeTypeFonts());
+        
+        executor.execute(() -> {
+            var verifier = new PathVerifier();
+            var drawableErrors = projectData.verifyDrawablePaths(drawables, verifier);
+            var fontErrors = projectData.verifyFontPaths(fonts, verifier);
+            var freeTypeFontErrors = projectData.verifyFreeTypeFontPaths(freeTypeFonts, verifier);
+            
+            Gdx.app.postRunnable(() -> {
+                if (id != generation) return;
+                
+                if (drawableErrors.size > 0 || fontErrors.size > 0 || freeTypeFontErrors.size > 0) {
+                    //the atlas is produced by DialogPathErrors once the paths are resolved
+                    atlasReady = true;
+                    dialogFactory.showDialogPathErrors(drawableErrors, fontErrors, freeTypeFontErrors);
+                    generateFonts(id);
+                } else {
+                    packAtlas(id);
+                }
+            });
+        });
+    }
+    
+    private void packAtlas(int id) {
+        setStatus("Packing atlas...");
+        var drawables = new Array<>(atlasData.getDrawables());
+        var fontDrawables = new Array<>(atlasData.getFontDrawables());
+        
+        executor.execute(() -> {
+            Exception exception = null;
+            try {
+                atlasData.packAtlas(drawables, fontDrawables);
+            } catch (Exception e) {
+                exception = e;
+            }
+            
+            var error = exception;
+            Gdx.app.postRunnable(() -> {
+                if (id != generation) return;
+                
+                try {
+                    if (error != null) throw error;
+                    atlasData.createDrawables();
+                } catch (Exception e) {
+                    Gdx.app.error(getClass().getName(), "Error while attempting to generate drawables.", e);
+                    dialogFactory.showDialogError("Atlas Error...","Error while attempting to generate drawables.\n\nOpen log?");
+                }
+                
+                atlasReady = true;
+                rootTable.refreshPreview();
+                generateFonts(id);
+            });
+        });
+    }
+    
+    private void generateFonts(int id) {
+        if (id != generation) return;
+        
+        if (pendingFonts.size == 0) {
+            finish();
+            return;
+        }
+        
+        setStatus("Generating fonts " + (fontTotal - pendingFonts.size + 1) + "/" + fontTotal + "...");
+        var font = pendingFonts.removeIndex(0);
+        font.createBitmapFont();
+        
+        if (rootTable.getSelectedCustomClass() == null) {
+            var style = rootTable.getSelectedStyle();
+            if (isPreviewReady(style) && usesValue(style, font.name)) {
+                rootTable.refreshPreview();
+            }
+        }
+        
+        //one font per frame keeps the interface responsive
+        Gdx.app.postRunnable(() -> generateFonts(id));
+    }
+    
+    private void finish() {
+        loading = false;
+        atlasReady = true;
+        setStatus(null);
+        rootTable.refreshPreview();
+        
+        var runnables = new Array<>(loadedRunnables);
+        loadedRunnables.clear();
+        for (var runnable : runnables) {
+            runnable.run();
+        }
+    }
+    
+    private void setStatus(String status) {
+        if (rootTable != null) rootTable.setLoadingStatus(status);
+    }
+    
+    public boolean isLoading() {
+        return loading;
+    }
+    
+    /**
+     * Runs the runnable once the resources are loaded or immediately if
+     * nothing is loading. Used to hold back actions that modify resources.
+     * @param runnable 
+     */
+    public void whenLoaded(Runnable runnable) {
+        if (loading) {
+            loadedRunnables.add(runnable);
+        } else {
+            runnable.run();
+        }
+    }
+    
+    /**
+     * Returns true if every drawable and font the style depends on is
+     * available.
+     * @param style
+     * @return 
+     */
+    public boolean isPreviewReady(StyleData style) {
+        if (!loading) return true;
+        if (!atlasReady) return false;
+        if (pendingFonts.size == 0) return true;
+        
+        //these styles depend on fonts of other styles
+        if (style.clazz.equals(SelectBox.class) || style.clazz.equals(TextTooltip.class)) return false;
+        
+        for (var font : pendingFonts) {
+            if (usesValue(style, font.name)) return false;
+        }
+        return true;
+    }
+    
+    private static boolean usesValue(StyleData style, String value) {
+        for (var property : style.properties.values()) {
+            if (value.equals(style.getInheritedValue(property.name))) return true;
+        }
+        return false;
+    }
+}
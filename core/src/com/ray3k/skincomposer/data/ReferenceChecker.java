@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+
+/**
+ * Indexes the colors, fonts and drawables referenced by style and custom
+ * properties in one pass. Broken references are found without scanning the
+ * resource lists for every property, and renaming or deleting a resource only
+ * visits the properties that reference it and updates the index in place. The
+ * project keeps one checker, see {@link JsonData#getReferenceChecker()}, which
+ * is discarded whenever properties are edited elsewhere. Every cleared
+ * reference is logged.
+ * @author Raymond
+ */
+public class ReferenceChecker {
+    private final JsonData jsonData;
+    private final AtlasData atlasData;
+    private final ObjectMap<ResourceType, ObjectSet<String>> names = new ObjectMap<>();
+    private final ObjectMap<ResourceType, ObjectMap<String, Array<Reference>>> references = new ObjectMap<>();
+    
+    public ReferenceChecker(JsonData jsonData, AtlasData atlasData) {
+        this.jsonData = jsonData;
+        this.atlasData = atlasData;
+        
+        for (var type : ResourceType.values()) {
+            names.put(type, new ObjectSet<>());
+            references.put(type, new ObjectMap<>());
+        }
+        
+        for (var color : jsonData.getColors()) {
+            names.get(ResourceType.COLOR).add(color.getName());
+        }
+        
+        for (var font : jsonData.getFonts()) {
+            names.get(ResourceType.FONT).add(font.getName());
+        }
+        
+        for (var font : jsonData.getFreeTypeFonts()) {
+            names.get(ResourceType.FONT).add(font.name);
+        }
+        
+        for (var drawable : atlasData.getDrawables()) {
+            names.get(ResourceType.DRAWABLE).add(drawable.name);
+        }
+        
+        for (var styles : jsonData.getClassStyleMap().values()) {
+            for (var style : styles) {
+                for (var property : style.properties.values()) {
+                    var type = ResourceType.of(property.type);
+                    if (type != null && property.value != null) add(type, new Reference(style, property));
+                }
+            }
+        }
+        
+        for (var customClass : jsonData.getCustomClasses()) {
+            for (var customStyle : customClass.getStyles()) {
+                for (var customProperty : customStyle.getProperties()) {
+                    var type = ResourceType.of(customProperty.getType());
+                    if (type != null && customProperty.getValue() != null) add(type, new Reference(customStyle, customProperty));
+                }
+            }
+        }
+    }
+    
+    private void add(ResourceType type, Reference reference) {
+        var map = references.get(type);
+        var key = reference.getValue().toString();
+        var array = map.get(key);
+        if (array == null) {
+            array = new Array<>();
+            map.put(key, array);
+        }
+        array.add(reference);
+    }
+    
+    /**
+     * Validates every reference. Style properties that reference a missing
+     * drawable get a custom drawable of that name, other broken references are
+     * cleared.
+     * @return The broken references that were found
+     */
+    public Array<String> check() {
+        var report = new Array<String>();
+        
+        for (var type : ResourceType.values()) {
+            var existing = names.get(type);
+            for (var entry : references.get(type)) {
+                if (existing.contains(entry.key)) continue;
+                
+                //missing drawables used by styles are replaced by custom drawables
+                if (type == ResourceType.DRAWABLE && hasStyleReference(entry.value)) {
+                    var customDrawable = new DrawableData(entry.key);
+                    customDrawable.type = DrawableType.CUSTOM;
+                    atlasData.getDrawables().add(customDrawable);
+                    existing.add(entry.key);
+                    report.add("Created custom drawable " + entry.key + " for missing drawable.");
+                    continue;
+                }
+                
+                for (var reference : entry.value) {
+                    reference.setValue(null);
+                    report.add("Cleared missing " + type.description + " " + entry.key + " from " + reference);
+                }
+                entry.value.clear();
+            }
+        }
+        
+        log(report);
+        return report;
+    }
+    
+    /**
+     * Clears every property referencing the deleted resource.
+     * @param type
+     * @param name
+     * @return The cleared references
+     */
+    public Array<String> removed(ResourceType type, String name) {
+        var report = new Array<String>();
+        names.get(type).remove(name);
+        var array = references.get(type).remove(name);
+        if (array != null) {
+            for (var reference : array) {
+                if (!reference.refersTo(name)) continue;
+                reference.setValue(null);
+                report.add("Cleared " + type.description + " " + name + " from " + reference);
+            }
+        }
+        
+        log(report);
+        return report;
+    }
+    
+    /**
+     * Updates every property referencing the renamed resource.
+     * @param type
+     * @param oldName
+     * @param newName 
+     */
+    public void renamed(ResourceType type, String oldName, String newName) {
+        names.get(type).remove(oldName);
+        names.get(type).add(newName);
+        var array = references.get(type).remove(oldName);
+        if (array != null) {
+            for (var reference : array) {
+                if (!reference.refersTo(oldName)) continue;
+                reference.setValue(newName);
+                add(type, reference);
+            }
+        }
+    }
+    
+    /**
+     * Returns the properties referencing the resource.
+     * @param type
+     * @param name
+     * @return The StyleProperty and CustomProperty instances
+     */
+    public Array<Object> getReferencingProperties(ResourceType type, String name) {
+        var properties = new Array<Object>();
+        var array = references.get(type).get(name);
+        if (array != null) {
+            for (var reference : array) {
+                if (!reference.refersTo(name)) continue;
+                properties.add(reference.styleProperty != null ? reference.styleProperty : reference.customProperty);
+            }
+        }
+        return properties;
+    }
+    
+    /**
+     * Returns the number of properties referencing the resource.
+     * @param type
+     * @param name
+     * @return 
+     */
+    public int countReferences(ResourceType type, String name) {
+        var array = references.get(type).get(name);
+        return array == null ? 0 : array.size;
+    }
+    
+    private static boolean hasStyleReference(Array<Reference> array) {
+        for (var reference : array) {
+            if (reference.styleProperty != null) return true;
+        }
+        return false;
+    }
+    
+    private void log(Array<String> report) {
+        for (var line : report) {
+            Gdx.app.log(getClass().getSimpleName(), line);
+        }
+    }
+    
+    public enum ResourceType {
+        COLOR("color"), FONT("font"), DRAWABLE("drawable");
+        
+        public final String description;
+        
+        ResourceType(String description) {
+            this.description = description;
+        }
+        
+        public static ResourceType of(Class type) {
+            if (type == Color.class) return COLOR;
+            if (type == BitmapFont.class) return FONT;
+            if (type != null && Drawable.class.isAssignableFrom(type)) return DRAWABLE;
+            return null;
+        }
+        
+        public static ResourceType of(CustomProperty.PropertyType type) {
+            if (type == null) return null;
+            switch (type) {
+                case COLOR:
+                    return COLOR;
+                case FONT:
+                    return FONT;
+                case DRAWABLE:
+                    return DRAWABLE;
+                default:
+                    return null;
+            }
+        }
+    }
+    
+    private static class Reference {
+        final Object style;
+        final StyleProperty styleProperty;
+        final CustomProperty customProperty;
+        
+        Reference(StyleData style, StyleProperty styleProperty) {
+            this.style = style;
+            this.styleProperty = styleProperty;
+            customProperty = null;
+        }
+        
+        Reference(CustomStyle style, CustomProperty customProperty) {
+            this.style = style;
+            styleProperty = null;
+            this.customProperty = customProperty;
+        }
+        
+        Object getValue() {
+            return styleProperty != null ? styleProperty.value : customProperty.getValue();
+        }
+        
+        /**
+         * Returns false if the property was changed to another value since it
+         * was indexed.
+         */
+        boolean refersTo(String name) {
+            var value = getValue();
+            return value != null && value.toString().equals(name);
+        }
+        
+        void setValue(Object value) {
+            if (styleProperty != null) styleProperty.value = value;
+            else customProperty.setValue(value);
+        }
+        
+        @Override
+        public String toString() {
+            if (styleProperty != null) {
+                var styleData = (StyleData) style;
+                return styleData.clazz.getSimpleName() + " style " + styleData.name + " property " + styleProperty.name;
+            } else {
+                var customStyle = (CustomStyle) style;
+                return customStyle.getParentClass().getDisplayName() + " style " + customStyle.getName() + " property " + customProperty.getName();
+            }
+        }
+    }
+}
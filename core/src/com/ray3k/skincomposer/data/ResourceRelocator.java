@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.OrderedMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plans the moves and copies required to relocate project resources and then
+ * performs them concurrently. A copy is skipped if the target already exists
+ * with the same size and modification time as the source, which is the case
+ * for every unchanged resource after the first save since copies keep the
+ * attributes of their source.
+ * @author Raymond
+ */
+public class ResourceRelocator {
+    private final OrderedMap<String, Relocation> relocations;
+    private final int threads;
+
+    public ResourceRelocator() {
+        this(Math.max(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public ResourceRelocator(int threads) {
+        this.threads = Math.max(1, threads);
+        relocations = new OrderedMap<>();
+    }
+    
+    /**
+     * Plans a copy of the file into the target folder.
+     * @param file
+     * @param targetFolder
+     * @return The location of the file after relocation.
+     */
+    public FileHandle copy(FileHandle file, FileHandle targetFolder) {
+        return plan(file, targetFolder, false);
+    }
+    
+    /**
+     * Plans a move of the file into the target folder.
+     * @param file
+     * @param targetFolder
+     * @return The location of the file after relocation.
+     */
+    public FileHandle move(FileHandle file, FileHandle targetFolder) {
+        return plan(file, targetFolder, true);
+    }
+    
+    private FileHandle plan(FileHandle file, FileHandle targetFolder, boolean move) {
+        var target = targetFolder.child(file.name());
+        var key = target.file().getAbsolutePath();
+        var existing = relocations.get(key);
+        
+        //the same file may be referenced by several resources
+        if (existing != null && existing.source.equals(file)) {
+            existing.move |= move;
+        } else {
+            //a file with the same name replaces the earlier one like a sequential copy would
+            relocations.remove(key);
+            relocations.put(key, new Relocation(file, target, move));
+        }
+        return target;
+    }
+    
+    /**
+     * Performs all planned relocations and clears the plan. Blocks until every
+     * file is transferred.
+     * @return The number of files that were actually moved or copied.
+     * @throws IOException If any of the files could not be relocated.
+     */
+    public int execute() throws IOException {
+        var plan = new Array<Relocation>(relocations.size);
+        for (var relocation : relocations.values()) {
+            if (relocation.move || !isUnchanged(relocation.source.file().toPath(), relocation.target.file().toPath())) {
+                plan.add(relocation);
+            }
+        }
+        relocations.clear();
+        
+        if (plan.size == 0) return 0;
+        
+        var executor = Executors.newFixedThreadPool(Math.min(threads, plan.size), runnable -> {
+            var thread = new Thread(runnable, "resource-relocator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            var futures = new Array<Future<?>>(plan.size);
+            for (var relocation : plan) {
+                futures.add(executor.submit(() -> {
+                    relocation.execute();
+                    return null;
+                }));
+            }
+            
+            for (var future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IOException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Resource relocation interrupted.", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return plan.size;
+    }
+    
+    /**
+     * Returns true if the target exists with the same size and modification
+     * time as the source.
+     * @param source
+     * @param target
+     * @return 
+     */
+    static boolean isUnchanged(Path source, Path target) {
+        try {
+            return Files.exists(target) && Files.size(source) == Files.size(target)
+                    && Files.getLastModifiedTime(source).toMillis() == Files.getLastModifiedTime(target).toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private static class Relocation {
+        private final FileHandle source;
+        private final FileHandle target;
+        private boolean move;
+
+        public Relocation(FileHandle source, FileHandle target, boolean move) {
+            this.source = source;
+            this.target = target;
+            this.move = move;
+        }
+        
+        public void execute() throws IOException {
+            var sourcePath = source.file().toPath();
+            var targetPath = target.file().toPath();
+            if (sourcePath.toAbsolutePath().equals(targetPath.toAbsolutePath())) return;
+            
+            Files.createDirectories(targetPath.getParent());
+            if (move) {
+                Files.move(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.desktop;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exports several projects concurrently on a bounded pool. The project data is
+ * held in static state in Main, so every project is exported by a separate
+ * headless JVM running {@link HeadlessExporter}. The processes share the atlas
+ * cache in the app folder so projects built from the same images are packed
+ * once. A report with the time and warnings of each project is printed when
+ * all exports complete.
+ * @author Raymond
+ */
+public class BatchExporter {
+    private final int threads;
+    
+    /**
+     * @param threads The maximum number of concurrent exports or 0 to base it
+     * on the available processors.
+     */
+    public BatchExporter(int threads) {
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+    
+    /**
+     * Exports every project to the output folder and returns the process exit
+     * code: 0 if all exports succeeded and 1 otherwise.
+     * @param projectPaths
+     * @param outPath
+     * @return 
+     */
+    public int run(Array<String> projectPaths, String outPath) {
+        var outFolder = new File(outPath);
+        if (outPath.toLowerCase().endsWith(".json")) {
+            System.err.println("The output of a batch export must be a folder.");
+            return 2;
+        }
+        
+        //skins are named after their projects so the names must be unique
+        var names = new Array<String>();
+        for (var projectPath : projectPaths) {
+            var name = new File(projectPath).getName().replaceFirst("\\.[^.]*$", "");
+            if (names.contains(name, false)) {
+                System.err.println("More than one project is named " + name + ". Export them to separate folders.");
+                return 2;
+            }
+            names.add(name);
+        }
+        
+        System.out.println("Exporting " + projectPaths.size + " projects with " + Math.min(threads, projectPaths.size) + " workers");
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, projectPaths.size), runnable -> {
+            var thread = new Thread(runnable, "batch-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        var futures = new Array<Future<Result>>();
+        for (var projectPath : projectPaths) {
+            futures.add(executor.submit(() -> export(projectPath, outFolder)));
+        }
+        
+        var results = new Array<Result>();
+        for (var future : futures) {
+            try {
+                results.add(future.get());
+            } catch (Exception e) {
+                e.printStackTrace();
+                return 1;
+            }
+        }
+        executor.shutdown();
+        
+        return report(results);
+    }
+    
+    private Result export(String projectPath, File outFolder) {
+        var result = new Result(projectPath);
+        var start = System.nanoTime();
+        
+        var jvmArgs = new ArrayList<String>();
+        jvmArgs.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        jvmArgs.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        jvmArgs.add("-cp");
+        jvmArgs.add(System.getProperty("java.class.path"));
+        jvmArgs.add(DesktopLauncher.class.getName());
+        jvmArgs.add(HeadlessExporter.EXPORT_ARGUMENT);
+        jvmArgs.add(projectPath);
+        jvmArgs.add(HeadlessExporter.OUT_ARGUMENT);
+        jvmArgs.add(outFolder.getAbsolutePath());
+        
+        try {
+            var processBuilder = new ProcessBuilder(jvmArgs);
+            processBuilder.redirectErrorStream(true);
+            var process = processBuilder.start();
+            
+            try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    result.output.add(line);
+                    if (line.startsWith(HeadlessExporter.WARNING_PREFIX)) result.warnings++;
+                }
+            }
+            
+            result.exitCode = process.waitFor();
+        } catch (Exception e) {
+            result.output.add(e.toString());
+            result.exitCode = 1;
+        }
+        
+        result.millis = (System.nanoTime() - start) / 1000000L;
+        System.out.println((result.exitCode == 0 ? "Exported " : "Failed ") + projectPath + " (" + result.millis + " ms)");
+        return result;
+    }
+    
+    private int report(Array<Result> results) {
+        var exitCode = 0;
+        var width = "Project".length();
+        for (var result : results) {
+            width = Math.max(width, result.projectPath.length());
+        }
+        
+        var format = "%-" + width + "s  %10s  %8s  %s%n";
+        System.out.println();
+        System.out.printf(format, "Project", "Time (ms)", "Warnings", "Result");
+        for (var result : results) {
+            System.out.printf(format, result.projectPath, result.millis, result.warnings, result.exitCode == 0 ? "OK" : "FAILED");
+            if (result.exitCode != 0) exitCode = 1;
+        }
+        
+        //show the full output of the projects that need attention
+        for (var result : results) {
+            if (result.exitCode == 0 && result.warnings == 0) continue;
+            System.out.println();
+            System.out.println(result.projectPath + ":");
+            for (var line : result.output) {
+                System.out.println("    " + line);
+            }
+        }
+        return exitCode;
+    }
+    
+    private static class Result {
+        final String projectPath;
+        final Array<String> output = new Array<>();
+        int exitCode;
+        int warnings;
+        long millis;
+        
+        Result(String projectPath) {
+            this.projectPath = projectPath;
+        }
+    }
+}
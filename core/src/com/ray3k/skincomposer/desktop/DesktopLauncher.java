@@ -28,10 +28,10 @@ import com.badlogic.gdx.Graphics;
 import com.badlogic.gdx.Graphics.DisplayMode;
 import com.badlogic.gdx.backends.lwjgl3.*;
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.PixmapIO;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.PixmapPacker;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.tools.bmfont.BitmapFontWriter;
@@ -48,8 +48,10 @@ import java.io.*;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static com.ray3k.skincomposer.Main.desktopWorker;
+import static com.ray3k.skincomposer.Main.projectData;
 import static org.lwjgl.system.MemoryStack.stackPush;
 
 /**
@@ -75,7 +77,7 @@ public class DesktopLauncher implements DesktopWorker, Lwjgl3WindowListener {
                 p.addImage(handle.file());
             } else {
                 if (localFile != null) {
-                    var localHandle = localFile.sibling(localFile.nameWithoutExtension() + "_data/" + handle.name());
+                    var localHandle = projectData.getDataFolder(localFile).child(handle.name());
                     if (localHandle.exists()) {
                         p.addImage(localHandle.file());
                     } else {
@@ -271,6 +273,24 @@ public class DesktopLauncher implements DesktopWorker, Lwjgl3WindowListener {
         }
     }
     
+    @Override
+    public File selectFolderDialog(String title, String defaultPath) {
+        //fix file path characters
+        if (Utils.isWindows()) {
+            defaultPath = defaultPath.replace("/", "\\");
+        } else {
+            defaultPath = defaultPath.replace("\\", "/");
+        }
+        
+        String result = org.lwjgl.util.tinyfd.TinyFileDialogs.tinyfd_selectFolderDialog(title, defaultPath);
+        
+        if (result != null) {
+            return new File(result);
+        } else {
+            return null;
+        }
+    }
+    
     @Override
     public File saveDialog(String title, String defaultPath,
             String[] filterPatterns, String filterDescription) {
@@ -324,56 +344,52 @@ public class DesktopLauncher implements DesktopWorker, Lwjgl3WindowListener {
         info.face = target.nameWithoutExtension();
         info.padding = new BitmapFontWriter.Padding(1, 1, 1, 1);
 
-        var pixmapNames = BitmapFontWriter.writePixmaps(pages, target.parent(), target.nameWithoutExtension());
+        var pixmapNames = new String[pages.size];
+        for (int i = 0; i < pages.size; i++) {
+            pixmapNames[i] = pages.size == 1 ? target.nameWithoutExtension() + ".png" : target.nameWithoutExtension() + "_" + i + ".png";
+        }
+        
         int scaleW;
         int scaleH;
         
-        if (pixmapNames.length > 1) {
+        if (pages.size > 1) {
             //all the images must have the same width and height
-            var pngTarget = target.sibling(pixmapNames[0]);
-            var pixmap = new Pixmap(pngTarget);
+            var pixmap = pages.first().getPixmap();
             scaleW = pixmap.getWidth();
             scaleH = pixmap.getHeight();
+            
+            //each page is encoded exactly once, in parallel
+            IntStream.range(0, pages.size).parallel().forEach(i -> PixmapIO.writePNG(target.sibling(pixmapNames[i]), pages.get(i).getPixmap()));
         } else {
-            var pngTarget = target.sibling(pixmapNames[0]);
-
-            //trim whitespace on the image.
-            var pixmap = new Pixmap(pngTarget);
-            var color = new Color();
-            scaleH = pixmap.getHeight();
-            boolean foundOpaquePixel = false;
-            for (int y = pixmap.getHeight() - 1; y >= 0 && !foundOpaquePixel; y--) {
-                for (int x = 0; x < pixmap.getWidth(); x++) {
-                    color.set(pixmap.getPixel(x, y));
-                    if (color.a > 0) {
-                        //add padding to new height
-                        scaleH = y + 2;
-                        foundOpaquePixel = true;
-                        break;
-                    }
+            var pixmap = pages.first().getPixmap();
+            
+            //trim whitespace on the image by measuring the glyph bounds instead of scanning pixels.
+            //the generator packs its glyphs unnamed, so the packer page keeps no rectangles for them.
+            scaleW = 0;
+            scaleH = 0;
+            BitmapFont.BitmapFontData fontData = data;
+            for (var glyphPage : fontData.glyphs) {
+                if (glyphPage == null) continue;
+                for (var glyph : glyphPage) {
+                    if (glyph == null || glyph.width == 0 || glyph.height == 0) continue;
+                    scaleW = Math.max(scaleW, glyph.srcX + glyph.width);
+                    scaleH = Math.max(scaleH, glyph.srcY + glyph.height);
                 }
             }
-
-            foundOpaquePixel = false;
-            scaleW = pixmap.getWidth();
-            for (int x = pixmap.getWidth() - 1; x >= 0 && !foundOpaquePixel; x--) {
-                for (int y = 0; y < pixmap.getHeight(); y++) {
-                    color.set(pixmap.getPixel(x, y));
-                    if (color.a > 0) {
-                        //add padding to new height
-                        scaleW = x + 2;
-                        foundOpaquePixel = true;
-                        break;
-                    }
-                }
+            
+            //add padding to new size
+            scaleW = Math.min(scaleW + 1, pixmap.getWidth());
+            scaleH = Math.min(scaleH + 1, pixmap.getHeight());
+            
+            if (scaleW == pixmap.getWidth() && scaleH == pixmap.getHeight()) {
+                PixmapIO.writePNG(target.sibling(pixmapNames[0]), pixmap);
+            } else {
+                var fixedPixmap = new Pixmap(Math.max(scaleW, 1), Math.max(scaleH, 1), Pixmap.Format.RGBA8888);
+                fixedPixmap.setBlending(Pixmap.Blending.None);
+                fixedPixmap.drawPixmap(pixmap, 0, 0);
+                PixmapIO.writePNG(target.sibling(pixmapNames[0]), fixedPixmap);
+                fixedPixmap.dispose();
             }
-    
-            var fixedPixmap = new Pixmap(scaleW, scaleH, Pixmap.Format.RGBA8888);
-            fixedPixmap.setBlending(Pixmap.Blending.None);
-            fixedPixmap.drawPixmap(pixmap, 0, 0);
-            PixmapIO.writePNG(pngTarget, fixedPixmap);
-            pixmap.dispose();
-            fixedPixmap.dispose();
         }
         
         BitmapFontWriter.writeFont(data, pixmapNames, target, info, scaleW, scaleH);
@@ -385,6 +401,22 @@ public class DesktopLauncher implements DesktopWorker, Lwjgl3WindowListener {
     }
     
     public static void main(String[] args) {
+        if (HeadlessExporter.isExportCommand(args)) {
+            System.exit(HeadlessExporter.run(args));
+        }
+        
+        if (HeadlessConverter.isConvertCommand(args)) {
+            System.exit(HeadlessConverter.run(args));
+        }
+        
+        if (ProjectBenchmark.isBenchmarkCommand(args)) {
+            System.exit(ProjectBenchmark.run(args));
+        }
+        
+        if (SceneComposerBenchmark.isBenchmarkCommand(args)) {
+            System.exit(SceneComposerBenchmark.run(args));
+        }
+        
         if (restartStartOnFirstThread()) {
             return;
         }
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.ray3k.skincomposer.data.ProjectData;
+import com.ray3k.skincomposer.data.ProjectJournal;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Converts a project between the text and binary formats from the command
+ * line without loading it. Usage:
+ * <pre>--convert project.scmp project.scmpb</pre>
+ * The format is chosen by the extension of the target. Use
+ * {@link ProjectBenchmark} to compare loading and saving in both formats.
+ * @author Raymond
+ */
+public class HeadlessConverter extends ApplicationAdapter {
+    public static final String CONVERT_ARGUMENT = "--convert";
+    private final String sourcePath;
+    private final String targetPath;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile int exitCode;
+    
+    public HeadlessConverter(String sourcePath, String targetPath) {
+        this.sourcePath = sourcePath;
+        this.targetPath = targetPath;
+    }
+    
+    public static boolean isConvertCommand(String[] args) {
+        for (var arg : args) {
+            if (arg.equals(CONVERT_ARGUMENT)) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Runs the conversion described by the arguments and returns the process
+     * exit code: 0 on success, 1 if the conversion failed and 2 for invalid
+     * arguments.
+     * @param args
+     * @return 
+     */
+    public static int run(String[] args) {
+        String sourcePath = null;
+        String targetPath = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(CONVERT_ARGUMENT) && i + 2 < args.length) {
+                sourcePath = args[++i];
+                targetPath = args[++i];
+            }
+        }
+        
+        if (sourcePath == null || targetPath == null || sourcePath.startsWith("--") || targetPath.startsWith("--")) {
+            System.err.println("Usage: " + CONVERT_ARGUMENT + " source." + ProjectData.EXTENSION + " target." + ProjectData.BINARY_EXTENSION);
+            return 2;
+        }
+        
+        System.setProperty("java.awt.headless", "true");
+        var converter = new HeadlessConverter(sourcePath, targetPath);
+        new HeadlessApplication(converter, new HeadlessApplicationConfiguration());
+        
+        try {
+            converter.finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        return converter.exitCode;
+    }
+    
+    @Override
+    public void create() {
+        exitCode = 1;
+        try {
+            var sourceFile = Gdx.files.absolute(new File(sourcePath).getAbsolutePath());
+            var targetFile = Gdx.files.absolute(new File(targetPath).getAbsolutePath());
+            if (!sourceFile.exists()) {
+                System.err.println("Project does not exist: " + sourceFile.path());
+                return;
+            }
+            
+            if (!isConvertibleFile(sourceFile) || !isConvertibleFile(targetFile)) {
+                System.err.println("Source and target must end with ." + ProjectData.EXTENSION + " or ." + ProjectData.BINARY_EXTENSION);
+                return;
+            }
+            
+            //ProjectData clears the journal when it is created
+            projectJournal = new ProjectJournal();
+            
+            System.out.println("Converting " + sourceFile.path() + " to " + targetFile.path());
+            var start = System.nanoTime();
+            new ProjectData().convertProjectFile(sourceFile, targetFile);
+            var elapsed = (System.nanoTime() - start) / 1000000;
+            System.out.println("Converted " + sourceFile.length() + " bytes to " + targetFile.length() + " bytes in " + elapsed + " ms");
+            exitCode = 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            Gdx.app.exit();
+        }
+    }
+    
+    private static boolean isConvertibleFile(FileHandle file) {
+        var extension = file.extension();
+        return extension.equalsIgnoreCase(ProjectData.EXTENSION) || extension.equalsIgnoreCase(ProjectData.BINARY_EXTENSION);
+    }
+    
+    @Override
+    public void dispose() {
+        finished.countDown();
+    }
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.ExportPipeline;
+import com.ray3k.skincomposer.data.ExportPipeline.ExportStage;
+import com.ray3k.skincomposer.data.ProjectData;
+import com.ray3k.skincomposer.data.ProjectJournal;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Exports a project from the command line under the headless backend so that
+ * skins can be built without a display or GPU. Usage:
+ * <pre>--export project.scmp --out folder/</pre>
+ * The skin is named after the project unless the output ends with ".json".
+ * Several projects may be listed after --export to export them concurrently
+ * with a {@link BatchExporter}.
+ * @author Raymond
+ */
+public class HeadlessExporter extends ApplicationAdapter {
+    public static final String EXPORT_ARGUMENT = "--export";
+    public static final String OUT_ARGUMENT = "--out";
+    public static final String THREADS_ARGUMENT = "--threads";
+    public static final String WARNING_PREFIX = "Warning: ";
+    private final String projectPath;
+    private final String outPath;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile int exitCode;
+    
+    public HeadlessExporter(String projectPath, String outPath) {
+        this.projectPath = projectPath;
+        this.outPath = outPath;
+    }
+    
+    public static boolean isExportCommand(String[] args) {
+        for (var arg : args) {
+            if (arg.equals(EXPORT_ARGUMENT)) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Runs the export described by the arguments and returns the process exit
+     * code: 0 on success, 1 if an export failed and 2 for invalid arguments.
+     * @param args
+     * @return 
+     */
+    public static int run(String[] args) {
+        var projectPaths = new Array<String>();
+        String outPath = null;
+        int threads = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals(EXPORT_ARGUMENT)) {
+                    while (i + 1 < args.length && !args[i + 1].startsWith("--")) projectPaths.add(args[++i]);
+                } else if (args[i].equals(OUT_ARGUMENT) && i + 1 < args.length) {
+                    outPath = args[++i];
+                } else if (args[i].equals(THREADS_ARGUMENT) && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            projectPaths.clear();
+        }
+        
+        if (projectPaths.size == 0 || outPath == null) {
+            System.err.println("Usage: " + EXPORT_ARGUMENT + " project.scmp [project2.scmp...] " + OUT_ARGUMENT + " folder/ [" + THREADS_ARGUMENT + " count]");
+            return 2;
+        }
+        
+        if (projectPaths.size > 1) {
+            return new BatchExporter(threads).run(projectPaths, outPath);
+        }
+        
+        var projectPath = projectPaths.first();
+        System.setProperty("java.awt.headless", "true");
+        var exporter = new HeadlessExporter(projectPath, outPath);
+        var config = new HeadlessApplicationConfiguration();
+        desktopWorker = new DesktopLauncher();
+        new HeadlessApplication(exporter, config);
+        
+        try {
+            exporter.finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        return exporter.exitCode;
+    }
+    
+    @Override
+    public void create() {
+        exitCode = 1;
+        try {
+            var projectFile = Gdx.files.absolute(new File(projectPath).getAbsolutePath());
+            if (!projectFile.exists()) {
+                System.err.println("Project does not exist: " + projectFile.path());
+                Gdx.app.exit();
+                return;
+            }
+            
+            appFolder = Gdx.files.external(".skincomposer/");
+            Main.copyDefaultFiles();
+            projectJournal = new ProjectJournal();
+            projectData = new ProjectData();
+            atlasData = projectData.getAtlasData();
+            jsonData = projectData.getJsonData();
+            projectData.readProject(projectFile);
+            
+            var outFile = Gdx.files.absolute(new File(outPath).getAbsolutePath());
+            var targetFile = outFile.extension().equalsIgnoreCase("json") ? outFile : outFile.child(projectFile.nameWithoutExtension() + ".json");
+            targetFile.parent().mkdirs();
+            
+            System.out.println("Exporting " + projectFile.path() + " to " + targetFile.path());
+            new ExportPipeline().export(targetFile, new ExportPipeline.ExportListener() {
+                private boolean failed;
+                
+                @Override
+                public void stageStarted(ExportStage stage, int total) {
+                    System.out.println(stage.description);
+                }
+
+                @Override
+                public void progress(ExportStage stage, int completed, int total) {
+                }
+
+                @Override
+                public void failed(ExportStage stage, Exception e) {
+                    failed = true;
+                    System.err.println("Export failed: " + stage.description);
+                    e.printStackTrace();
+                }
+
+                @Override
+                public void finished(Array<String> warnings, boolean cancelled) {
+                    for (var warning : warnings) {
+                        System.out.println(WARNING_PREFIX + warning.replaceAll("(?<!\\[)\\[(?!\\[).*?\\]", ""));
+                    }
+                    
+                    exitCode = failed ? 1 : 0;
+                    Gdx.app.exit();
+                }
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            Gdx.app.exit();
+        }
+    }
+    
+    @Override
+    public void dispose() {
+        finished.countDown();
+    }
+}
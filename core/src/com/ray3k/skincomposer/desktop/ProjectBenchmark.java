@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.LongArray;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.ProjectData;
+import com.ray3k.skincomposer.data.ProjectJournal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Measures loading and saving a project in the text and binary formats from
+ * the command line. Usage:
+ * <pre>--benchmark project.scmp [--iterations 10]</pre>
+ * The project is written once in each format to a temporary file, then read
+ * and written again for the requested number of iterations after a warm up.
+ * Loading is measured without resources, as it is before the background
+ * loading of the atlas and fonts starts. Saving is measured to memory so the
+ * disk does not skew the comparison.
+ * @author Raymond
+ */
+public class ProjectBenchmark extends ApplicationAdapter {
+    public static final String BENCHMARK_ARGUMENT = "--benchmark";
+    public static final String ITERATIONS_ARGUMENT = "--iterations";
+    private static final int WARM_UP_ITERATIONS = 3;
+    private final String projectPath;
+    private final int iterations;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile int exitCode;
+    
+    public ProjectBenchmark(String projectPath, int iterations) {
+        this.projectPath = projectPath;
+        this.iterations = iterations;
+    }
+    
+    public static boolean isBenchmarkCommand(String[] args) {
+        for (var arg : args) {
+            if (arg.equals(BENCHMARK_ARGUMENT)) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Runs the benchmark described by the arguments and returns the process
+     * exit code: 0 on success, 1 if the benchmark failed and 2 for invalid
+     * arguments.
+     * @param args
+     * @return 
+     */
+    public static int run(String[] args) {
+        String projectPath = null;
+        int iterations = 10;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals(BENCHMARK_ARGUMENT) && i + 1 < args.length) {
+                    projectPath = args[++i];
+                } else if (args[i].equals(ITERATIONS_ARGUMENT) && i + 1 < args.length) {
+                    iterations = Integer.parseInt(args[++i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            iterations = 0;
+        }
+        
+        if (projectPath == null || projectPath.startsWith("--") || iterations <= 0) {
+            System.err.println("Usage: " + BENCHMARK_ARGUMENT + " project." + ProjectData.EXTENSION + " [" + ITERATIONS_ARGUMENT + " count]");
+            return 2;
+        }
+        
+        System.setProperty("java.awt.headless", "true");
+        var benchmark = new ProjectBenchmark(projectPath, iterations);
+        new HeadlessApplication(benchmark, new HeadlessApplicationConfiguration());
+        
+        try {
+            benchmark.finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        return benchmark.exitCode;
+    }
+    
+    @Override
+    public void create() {
+        exitCode = 1;
+        FileHandle textFile = null;
+        FileHandle binaryFile = null;
+        try {
+            var projectFile = Gdx.files.absolute(new File(projectPath).getAbsolutePath());
+            if (!projectFile.exists()) {
+                System.err.println("Project does not exist: " + projectFile.path());
+                return;
+            }
+            
+            var extension = projectFile.extension();
+            if (!extension.equalsIgnoreCase(ProjectData.EXTENSION) && !extension.equalsIgnoreCase(ProjectData.BINARY_EXTENSION)) {
+                System.err.println("Project must end with ." + ProjectData.EXTENSION + " or ." + ProjectData.BINARY_EXTENSION);
+                return;
+            }
+            
+            appFolder = Gdx.files.external(".skincomposer/");
+            Main.copyDefaultFiles();
+            projectJournal = new ProjectJournal();
+            projectData = new ProjectData();
+            atlasData = projectData.getAtlasData();
+            jsonData = projectData.getJsonData();
+            projectData.readProject(projectFile);
+            
+            textFile = Gdx.files.absolute(File.createTempFile("benchmark", "." + ProjectData.EXTENSION).getAbsolutePath());
+            binaryFile = Gdx.files.absolute(File.createTempFile("benchmark", "." + ProjectData.BINARY_EXTENSION).getAbsolutePath());
+            write(textFile, false);
+            write(binaryFile, true);
+            
+            System.out.println("Benchmarking " + projectFile.path() + " over " + iterations + " iterations");
+            benchmark("Text", textFile, projectFile, false);
+            benchmark("Binary", binaryFile, projectFile, true);
+            exitCode = 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (textFile != null) textFile.delete();
+            if (binaryFile != null) binaryFile.delete();
+            Gdx.app.exit();
+        }
+    }
+    
+    private void write(FileHandle file, boolean binary) throws IOException {
+        try (var outputStream = file.write(false)) {
+            projectData.writeProject(outputStream, binary);
+        }
+    }
+    
+    private void benchmark(String name, FileHandle source, FileHandle projectFile, boolean binary) throws IOException {
+        var loadTimes = new LongArray();
+        var saveTimes = new LongArray();
+        var outputStream = new ByteArrayOutputStream((int) source.length());
+        
+        for (int i = 0; i < WARM_UP_ITERATIONS + iterations; i++) {
+            var start = System.nanoTime();
+            projectData.readProject(source, projectFile);
+            var loaded = System.nanoTime();
+            outputStream.reset();
+            projectData.writeProject(outputStream, binary);
+            var saved = System.nanoTime();
+            
+            if (i >= WARM_UP_ITERATIONS) {
+                loadTimes.add(loaded - start);
+                saveTimes.add(saved - loaded);
+            }
+        }
+        
+        System.out.println(name + ": " + source.length() + " bytes, load " + format(loadTimes) + ", save " + format(saveTimes));
+    }
+    
+    /**
+     * Formats the median and minimum of the times in milliseconds.
+     * @param times Nanoseconds. Sorted in place.
+     * @return 
+     */
+    static String format(LongArray times) {
+        times.sort();
+        return String.format("median %.2f ms min %.2f ms", times.get(times.size / 2) / 1000000.0, times.first() / 1000000.0);
+    }
+    
+    @Override
+    public void dispose() {
+        finished.countDown();
+    }
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.LongArray;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.ProjectData;
+import com.ray3k.skincomposer.data.ProjectJournal;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.*;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Measures priming the styles of a scene composer layout after it is loaded
+ * and duplicating it from the command line. Usage:
+ * <pre>--benchmark-scene project.scmp [--actors 10000] [--iterations 10]</pre>
+ * The layout is a table of labels and text buttons using the default styles
+ * of the project, built with the requested number of actors.
+ * @author Raymond
+ */
+public class SceneComposerBenchmark extends ApplicationAdapter {
+    public static final String BENCHMARK_ARGUMENT = "--benchmark-scene";
+    public static final String ACTORS_ARGUMENT = "--actors";
+    private static final int WARM_UP_ITERATIONS = 3;
+    private static final int COLUMNS = 10;
+    private final String projectPath;
+    private final int actors;
+    private final int iterations;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile int exitCode;
+    
+    public SceneComposerBenchmark(String projectPath, int actors, int iterations) {
+        this.projectPath = projectPath;
+        this.actors = actors;
+        this.iterations = iterations;
+    }
+    
+    public static boolean isBenchmarkCommand(String[] args) {
+        for (var arg : args) {
+            if (arg.equals(BENCHMARK_ARGUMENT)) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Runs the benchmark described by the arguments and returns the process
+     * exit code: 0 on success, 1 if the benchmark failed and 2 for invalid
+     * arguments.
+     * @param args
+     * @return 
+     */
+    public static int run(String[] args) {
+        String projectPath = null;
+        int actors = 10000;
+        int iterations = 10;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals(BENCHMARK_ARGUMENT) && i + 1 < args.length) {
+                    projectPath = args[++i];
+                } else if (args[i].equals(ACTORS_ARGUMENT) && i + 1 < args.length) {
+                    actors = Integer.parseInt(args[++i]);
+                } else if (args[i].equals(ProjectBenchmark.ITERATIONS_ARGUMENT) && i + 1 < args.length) {
+                    iterations = Integer.parseInt(args[++i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            iterations = 0;
+        }
+        
+        if (projectPath == null || projectPath.startsWith("--") || actors <= 2 || iterations <= 0) {
+            System.err.println("Usage: " + BENCHMARK_ARGUMENT + " project." + ProjectData.EXTENSION + " [" + ACTORS_ARGUMENT + " count] [" + ProjectBenchmark.ITERATIONS_ARGUMENT + " count]");
+            return 2;
+        }
+        
+        System.setProperty("java.awt.headless", "true");
+        var benchmark = new SceneComposerBenchmark(projectPath, actors, iterations);
+        new HeadlessApplication(benchmark, new HeadlessApplicationConfiguration());
+        
+        try {
+            benchmark.finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        return benchmark.exitCode;
+    }
+    
+    @Override
+    public void create() {
+        exitCode = 1;
+        FileHandle sceneFile = null;
+        try {
+            var projectFile = Gdx.files.absolute(new File(projectPath).getAbsolutePath());
+            if (!projectFile.exists()) {
+                System.err.println("Project does not exist: " + projectFile.path());
+                return;
+            }
+            
+            appFolder = Gdx.files.external(".skincomposer/");
+            Main.copyDefaultFiles();
+            projectJournal = new ProjectJournal();
+            projectData = new ProjectData();
+            atlasData = projectData.getAtlasData();
+            jsonData = projectData.getJsonData();
+            projectData.readProject(projectFile);
+            
+            DialogSceneComposerModel.rootActor = createScene();
+            new DialogSceneComposerModel();
+            var count = DialogSceneComposerModel.rootActor.countActors();
+            sceneFile = Gdx.files.absolute(File.createTempFile("benchmark", ".json").getAbsolutePath());
+            DialogSceneComposerModel.saveToJson(sceneFile);
+            
+            var primeTimes = new LongArray();
+            var duplicateTimes = new LongArray();
+            for (int i = 0; i < WARM_UP_ITERATIONS + iterations; i++) {
+                DialogSceneComposerModel.loadFromJson(sceneFile);
+                var start = System.nanoTime();
+                //the model primes the styles and drawables of the loaded layout
+                new DialogSceneComposerModel();
+                var primed = System.nanoTime();
+                DialogSceneComposerModel.rootActor.duplicate();
+                var duplicated = System.nanoTime();
+                
+                if (i >= WARM_UP_ITERATIONS) {
+                    primeTimes.add(primed - start);
+                    duplicateTimes.add(duplicated - primed);
+                }
+            }
+            
+            System.out.println("Benchmarking a layout of " + count + " actors over " + iterations + " iterations");
+            System.out.println("Prime " + ProjectBenchmark.format(primeTimes) + ", duplicate " + ProjectBenchmark.format(duplicateTimes));
+            exitCode = 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (sceneFile != null) sceneFile.delete();
+            DialogSceneComposerModel.rootActor = null;
+            Gdx.app.exit();
+        }
+    }
+    
+    /**
+     * Creates a root group holding a table with a label or a text button in
+     * each cell, for a total of about the requested number of actors.
+     * @return 
+     */
+    private SimRootGroup createScene() {
+        var root = new SimRootGroup();
+        var table = new SimTable();
+        table.parent = root;
+        root.children.add(table);
+        
+        //each cell holds one widget
+        int cells = (actors - 2) / 2;
+        for (int i = 0; i < cells; i++) {
+            var cell = new SimCell();
+            cell.parent = table;
+            cell.row = i / COLUMNS;
+            cell.column = i % COLUMNS;
+            
+            if (i % 2 == 0) {
+                var label = new SimLabel();
+                label.text = "Label " + i;
+                cell.child = label;
+            } else {
+                var button = new SimTextButton();
+                button.text = "Button " + i;
+                cell.child = button;
+            }
+            cell.child.parent = cell;
+            table.cells.add(cell);
+        }
+        return root;
+    }
+    
+    @Override
+    public void dispose() {
+        finished.countDown();
+    }
+}
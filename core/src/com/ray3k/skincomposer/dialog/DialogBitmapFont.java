@@ -41,6 +41,7 @@ import com.ray3k.skincomposer.LeadingTruncateLabel;
 import com.ray3k.skincomposer.Main;
 import com.ray3k.stripe.Spinner;
 import com.ray3k.skincomposer.data.ColorData;
+import com.ray3k.skincomposer.data.FreeTypeFontBatchExporter;
 import com.ray3k.skincomposer.data.FreeTypeFontData;
 import com.ray3k.skincomposer.data.StyleProperty;
 import com.ray3k.skincomposer.utils.Utils;
@@ -72,11 +73,13 @@ public class DialogBitmapFont extends Dialog {
     private Color previewBGcolor;
     private boolean automaticBgColor;
     private Table previewTable;
+    private int[] batchSizes;
 
     public DialogBitmapFont() {
         super("Create new Bitmap Font", skin, "bg");
         previewBGcolor = new Color(Color.BLACK);
         automaticBgColor = true;
+        batchSizes = new int[0];
 
         json = new Json(JsonWriter.OutputType.json);
 
@@ -138,10 +141,16 @@ public class DialogBitmapFont extends Dialog {
     protected void result(Object object) {
         switch ((ButtonType) object) {
             case GENERATE:
-                data.writeFontToFile(main, target);
+                if (batchSizes.length == 0) {
+                    data.writeFontToFile(main, target);
 
-                for (DialogBitmapFontListener listener : listeners) {
-                    listener.fontAdded(target);
+                    var files = new Array<FileHandle>();
+                    files.add(target);
+                    for (DialogBitmapFontListener listener : listeners) {
+                        listener.fontAdded(files);
+                    }
+                } else {
+                    generateBatch();
                 }
                 break;
             case SAVE_SETTINGS:
@@ -155,6 +164,50 @@ public class DialogBitmapFont extends Dialog {
         }
     }
 
+    private void generateBatch() {
+        var fonts = new Array<FreeTypeFontData>();
+        var targets = new Array<FileHandle>();
+        fonts.add(new FreeTypeFontData(data));
+        targets.add(target);
+        var sizes = new IntArray(batchSizes);
+        sizes.removeValue(data.size);
+        FreeTypeFontBatchExporter.createSizeVariants(data, sizes.toArray(), target, fonts, targets);
+        
+        var exporter = new FreeTypeFontBatchExporter();
+        var dialogProgress = new DialogProgress("Generating fonts...", exporter::cancel);
+        dialogProgress.setProgress("0 of " + fonts.size);
+        dialogProgress.show(stage);
+        
+        exporter.export(fonts, targets, new FreeTypeFontBatchExporter.BatchListener() {
+            @Override
+            public void progress(FreeTypeFontData font, FileHandle target, int completed, int total) {
+                if (!exporter.isCancelled()) {
+                    dialogProgress.setProgress(completed + " of " + total);
+                }
+            }
+
+            @Override
+            public void failed(FreeTypeFontData font, FileHandle target, Exception e) {
+                dialogFactory.showDialogError("Font Error...", "Error generating font " + target.name() + ".\n\nOpen log?");
+            }
+
+            @Override
+            public void finished(Array<FileHandle> written, boolean cancelled) {
+                dialogProgress.hide();
+                
+                //keep the order requested by the user regardless of completion order
+                var files = new Array<FileHandle>();
+                for (var target : targets) {
+                    if (written.contains(target, true)) files.add(target);
+                }
+                
+                for (DialogBitmapFontListener listener : listeners) {
+                    listener.fontAdded(files);
+                }
+            }
+        });
+    }
+    
     @Override
     public boolean remove() {
         desktopWorker.removeFilesDroppedListener(filesDroppedListener);
@@ -469,6 +522,36 @@ public class DialogBitmapFont extends Dialog {
 
         bottom.add().growX();
 
+        bottom.row();
+        label = new Label("Extra Sizes:", skin);
+        bottom.add(label).right();
+
+        var batchTextField = new TextField("", skin);
+        batchTextField.setName("batchSizes");
+        batchTextField.setMessageText("ie. 12, 14, 18");
+        bottom.add(batchTextField).left().colspan(3).growX();
+
+        batchTextField.addListener(ibeamListener);
+        toolTip = new TextTooltip("Comma separated sizes to be generated at the same time as separate fonts", tooltipManager, getSkin());
+        batchTextField.addListener(toolTip);
+        batchTextField.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                var sizes = new IntArray();
+                for (var text : batchTextField.getText().split(",")) {
+                    try {
+                        var size = Integer.parseInt(text.trim());
+                        if (size >= 5 && !sizes.contains(size)) sizes.add(size);
+                    } catch (NumberFormatException e) {
+                        
+                    }
+                }
+                batchSizes = sizes.toArray();
+            }
+        });
+
+        bottom.add();
+
         bottom.row();
         label = new Label("Hinting:", skin);
         bottom.add(label).right();
@@ -1115,7 +1198,7 @@ public class DialogBitmapFont extends Dialog {
     }
 
     public static interface DialogBitmapFontListener {
-        public void fontAdded(FileHandle file);
+        public void fontAdded(Array<FileHandle> files);
     }
 
     private void saveSettings() {
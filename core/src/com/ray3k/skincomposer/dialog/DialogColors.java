@@ -29,7 +29,6 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.*;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Sort;
@@ -38,6 +37,7 @@ import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.UndoableManager.ColorUndoable;
 import com.ray3k.skincomposer.UndoableManager.CustomColorUndoable;
 import com.ray3k.skincomposer.data.*;
+import com.ray3k.skincomposer.data.ReferenceChecker.ResourceType;
 import com.ray3k.skincomposer.utils.Utils;
 
 import java.util.Comparator;
@@ -373,32 +373,17 @@ public class DialogColors extends Dialog {
                         colors.removeValue(deleteColor, true);
                         projectData.setChangesSaved(false);
                         
-                        //clear style properties that use this color.
-                        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData data : datas) {
-                                for (StyleProperty property : data.properties.values()) {
-                                    if (property != null && property.type.equals(Color.class) && property.value != null && property.value.equals(deleteColor.getName())) {
-                                        property.value = null;
-                                    }
-                                }
-                            }
-                        }
+                        //clear properties that use this color.
+                        var checker = jsonData.getReferenceChecker();
+                        checker.removed(ResourceType.COLOR, deleteColor.getName());
                         
                         //delete tinted drawables based on this color.
                         for(DrawableData drawableData : new Array<>(projectData.getAtlasData().getDrawables())) {
                             if (drawableData.tintName != null && drawableData.tintName.equals(deleteColor.getName())) {
                                 projectData.getAtlasData().getDrawables().removeValue(drawableData, true);
                                 
-                                //clear any style properties based on this tinted drawable.
-                                for (Array<StyleData> styleDatas : jsonData.getClassStyleMap().values()) {
-                                    for (StyleData styleData : styleDatas) {
-                                        for (StyleProperty styleProperty : styleData.properties.values()) {
-                                            if (styleProperty != null && styleProperty.type.equals(Drawable.class) && styleProperty.value != null && styleProperty.value.equals(drawableData.toString())) {
-                                                styleProperty.value = null;
-                                            }
-                                        }
-                                    }
-                                }
+                                //clear any properties based on this tinted drawable.
+                                checker.removed(ResourceType.DRAWABLE, drawableData.toString());
                             }
                         }
                         
@@ -560,16 +545,8 @@ public class DialogColors extends Dialog {
     }
     
     private void renameColor(ColorData color, String newName) {
-        //style properties
-        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-            for (StyleData data : datas) {
-                for (StyleProperty property : data.properties.values()) {
-                    if (property != null && property.type.equals(Color.class) && property.value != null && property.value.equals(color.getName())) {
-                        property.value = newName;
-                    }
-                }
-            }
-        }
+        //style and custom properties
+        jsonData.getReferenceChecker().renamed(ResourceType.COLOR, color.getName(), newName);
         
         for (DrawableData drawableData : atlasData.getDrawables()) {
             //tinted drawables
@@ -30,7 +30,6 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Cursor;
 import com.badlogic.gdx.graphics.Cursor.SystemCursor;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.*;
@@ -39,7 +38,6 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.*;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ObjectMap.Values;
 import com.badlogic.gdx.utils.Scaling;
 import com.badlogic.gdx.utils.Sort;
 import com.ray3k.skincomposer.FilesDroppedListener;
@@ -47,9 +45,11 @@ import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.Undoable;
 import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.UndoableManager.CustomDrawableUndoable;
+import com.ray3k.skincomposer.UndoableManager.DeleteDrawableUndoable;
 import com.ray3k.skincomposer.UndoableManager.DrawableUndoable;
 import com.ray3k.skincomposer.data.*;
 import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.skincomposer.data.ReferenceChecker.ResourceType;
 import com.ray3k.skincomposer.dialog.DialogTenPatch.TenPatchData;
 import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.stripe.PopTableClickListener;
@@ -1423,47 +1423,49 @@ public class DialogDrawables extends Dialog {
     }
     
     private void updateStyleValuesForRename(String oldName, String newName) {
-        Values<Array<StyleData>> values = jsonData.getClassStyleMap().values();
-        for (Array<StyleData> styles : values) {
-            for (StyleData style : styles) {
-                for (StyleProperty styleProperty : style.properties.values()) {
-                    if (Drawable.class.isAssignableFrom(styleProperty.type)) {
-                        if (styleProperty.value != null && styleProperty.value.equals(oldName)) {
-                            styleProperty.value = newName;
-                        }
-                    }
-                }
-            }
-        }
+        jsonData.getReferenceChecker().renamed(ResourceType.DRAWABLE, oldName, newName);
     }
     
     private void deleteDrawable(DrawableData drawable) {
         if (!drawable.customized && drawable.tint == null && drawable.tintName == null && drawable.tenPatchData == null && checkDuplicateDrawables(drawable.file, 1)) {
             showConfirmDeleteDialog(drawable);
         } else {
-            removeRegionFromTenPatches(drawable);
-            atlasData.getDrawables().removeValue(drawable, true);
-
-            for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                for (StyleData data : datas) {
-                    for (StyleProperty styleProperty : data.properties.values()) {
-                        if (styleProperty != null && styleProperty.type.equals(Drawable.class) && styleProperty.value != null && styleProperty.value.equals(drawable.toString())) {
-                            styleProperty.value = null;
-                        }
-                    }
+            deleteDrawables(Array.with(drawable));
+        }
+    }
+    
+    /**
+     * Deletes the drawables as a single undo step. Style properties that
+     * reference them are cleared and ten patches stop using them.
+     * @param drawables
+     */
+    private void deleteDrawables(Array<DrawableData> drawables) {
+        //adding undoables discards the reference checker, so collect everything first
+        var checker = jsonData.getReferenceChecker();
+        var properties = new Array<Object>();
+        for (var drawable : drawables) {
+            for (var property : checker.getReferencingProperties(ResourceType.DRAWABLE, drawable.toString())) {
+                if (!properties.contains(property, true)) properties.add(property);
+            }
+        }
+        
+        undoableManager.transaction(drawables.size == 1 ? null : "Delete Drawables", () -> {
+            for (var property : properties) {
+                if (property instanceof StyleProperty) {
+                    var styleProperty = (StyleProperty) property;
+                    undoableManager.addUndoable(new DrawableUndoable(rootTable, atlasData, styleProperty, styleProperty.value, null), true);
+                } else {
+                    undoableManager.addUndoable(new CustomDrawableUndoable(main, (CustomProperty) property, null), true);
                 }
             }
-
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
-
-            undoableManager.clearUndoables();
             
-            projectData.setChangesSaved(false);
-
-            gatherDrawables();
-            sortBySelectedMode();
-        }
+            //properties are restored after the drawables when undone
+            for (var drawable : drawables) {
+                undoableManager.addUndoable(new DeleteDrawableUndoable(drawable), true);
+            }
+        });
+        
+        sortBySelectedMode();
     }
 
     /**
@@ -1477,11 +1479,7 @@ public class DialogDrawables extends Dialog {
             @Override
             protected void result(Object object) {
                 if ((boolean) object) {
-                    projectData.setChangesSaved(false);
-                    removeDuplicateDrawables(drawable.file);
-                    removeRegionFromTenPatches(drawable);
-                    gatherDrawables();
-                    sortBySelectedMode();
+                    deleteDrawables(findDuplicateDrawables(drawable.file));
                 }
             }
         };
@@ -1501,30 +1499,6 @@ public class DialogDrawables extends Dialog {
         dialog.show(getStage());
     }
     
-    private void removeRegionFromTenPatches(DrawableData drawable) {
-        for (var data : atlasData.getDrawables()) {
-            if (data.tenPatchData != null) {
-                var iter = data.tenPatchData.regionNames.iterator();
-                while (iter.hasNext()) {
-                    String name = iter.next();
-                    if (name.equals(drawable.name)) {
-                        iter.remove();
-                    }
-                }
-                
-                if (data.tenPatchData.regions != null) {
-                    var iter2 = data.tenPatchData.regions.iterator();
-                    while (iter2.hasNext()) {
-                        var region = iter2.next();
-                        if (((TextureAtlas.AtlasRegion)region).name.equals(drawable.name)) {
-                            iter2.remove();
-                        }
-                    }
-                }
-            }
-        }
-    }
-    
     /**
      * Sorts by selected sort order and populates the list.
      */
@@ -1718,52 +1692,20 @@ public class DialogDrawables extends Dialog {
     }
     
     /**
-     * Removes any duplicate drawables that share the same file name. This
-     * ignores the file extension and also deletes TintedDrawables from the
-     * same file. Calls removeDuplicateDrawables(handle, true).
+     * Returns the drawables that share the same file name. This ignores the
+     * file extension and includes TintedDrawables from the same file.
      * @param handle
+     * @return 
      */
-    private void removeDuplicateDrawables(FileHandle handle) {
-        removeDuplicateDrawables(handle, true);
-    }
-    
-    /**
-     * Removes any duplicate drawables that share the same file name. This
-     * ignores the file extension and also deletes TintedDrawables from the
-     * same file.
-     * @param handle
-     */
-    private void removeDuplicateDrawables(FileHandle handle, boolean deleteStyleValues) {
-        boolean refreshDrawables = false;
+    private Array<DrawableData> findDuplicateDrawables(FileHandle handle) {
+        var duplicates = new Array<DrawableData>();
         String name = DrawableData.proper(handle.name());
-        for (int i = 0; i < atlasData.getDrawables().size; i++) {
-            DrawableData data = atlasData.getDrawables().get(i);
+        for (DrawableData data : atlasData.getDrawables()) {
             if (name.equals(DrawableData.proper(data.file.name()))) {
-                atlasData.getDrawables().removeValue(data, true);
-                
-                if (deleteStyleValues) {
-                    for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                        for (StyleData tempData : datas) {
-                            for (StyleProperty prop : tempData.properties.values()) {
-                                if (prop != null && prop.type.equals(Drawable.class) && prop.value != null && prop.value.equals(data.toString())) {
-                                    prop.value = null;
-                                }
-                            }
-                        }
-                    }
-                }
-                
-                refreshDrawables = true;
-                i--;
+                duplicates.add(data);
             }
         }
-        
-        rootTable.refreshStyleProperties(true);
-        rootTable.refreshPreview();
-        
-        if (refreshDrawables) {
-            gatherDrawables();
-        }
+        return duplicates;
     }
     
     /**
@@ -1772,21 +1714,14 @@ public class DialogDrawables extends Dialog {
      */
     private void removeDuplicateDrawables(String name, boolean deleteStyleValues) {
         boolean refreshDrawables = false;
+        var checker = deleteStyleValues ? jsonData.getReferenceChecker() : null;
         for (int i = 0; i < atlasData.getDrawables().size; i++) {
             DrawableData data = atlasData.getDrawables().get(i);
             if (data.name != null && name.equals(data.name)) {
                 atlasData.getDrawables().removeValue(data, true);
                 
                 if (deleteStyleValues) {
-                    for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                        for (StyleData tempData : datas) {
-                            for (StyleProperty prop : tempData.properties.values()) {
-                                if (prop != null && prop.type.equals(Drawable.class) && prop.value != null && prop.value.equals(data.toString())) {
-                                    prop.value = null;
-                                }
-                            }
-                        }
-                    }
+                    checker.removed(ResourceType.DRAWABLE, data.toString());
                 }
                 
                 refreshDrawables = true;
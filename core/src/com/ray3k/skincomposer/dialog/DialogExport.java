@@ -32,9 +32,8 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Array;
-import com.ray3k.skincomposer.Main;
-import com.ray3k.skincomposer.data.FontData;
-import com.ray3k.skincomposer.data.FreeTypeFontData;
+import com.ray3k.skincomposer.data.ExportPipeline;
+import com.ray3k.skincomposer.data.ExportPipeline.ExportStage;
 import com.ray3k.skincomposer.data.JsonData.ExportFormat;
 import com.ray3k.skincomposer.utils.Utils;
 
@@ -213,41 +212,44 @@ public class DialogExport extends Dialog {
     }
     
     private void writeFile(FileHandle fileHandle) {
-        dialogFactory.showDialogLoading(() -> {
-            Gdx.app.postRunnable(() -> {
-                Array<String> warnings = new Array<>();
+        var pipeline = new ExportPipeline();
+        var dialogProgress = new DialogProgress("Exporting skin...", pipeline::cancel);
+        dialogProgress.show(stage);
+        
+        pipeline.export(fileHandle, new ExportPipeline.ExportListener() {
+            @Override
+            public void stageStarted(ExportStage exportStage, int total) {
+                if (!pipeline.isCancelled()) dialogProgress.setProgress(exportStage.description);
+            }
 
-                Array<String> newWarnings = projectData.getJsonData().writeFile(fileHandle);
-                warnings.addAll(newWarnings);
+            @Override
+            public void progress(ExportStage exportStage, int completed, int total) {
+                if (!pipeline.isCancelled()) dialogProgress.setProgress(exportStage.description + " " + completed + " of " + total);
+            }
 
-                if (projectData.isExportingAtlas()) {
-                    try {
-                        newWarnings = projectData.getAtlasData().writeAtlas(fileHandle.parent().child(fileHandle.nameWithoutExtension() + ".atlas"), Main.appFolder.child("texturepacker/atlas-export-settings.json"));
-                        warnings.addAll(newWarnings);
-                    } catch (Exception ex) {
-                        Gdx.app.error(getClass().getName(), "Error while writing texture atlas", ex);
+            @Override
+            public void failed(ExportStage exportStage, Exception e) {
+                switch (exportStage) {
+                    case JSON:
+                        dialogFactory.showDialogError("Export Error...", "Error while writing skin JSON.\n\nOpen log?");
+                        break;
+                    case ATLAS:
                         dialogFactory.showDialogError("Atlas Error...", "Error while writing texture atlas.\n\nOpen log?");
-                    }
-                }
-
-                if (projectData.isExportingFonts()) {
-                    for (FontData font : projectData.getJsonData().getFonts()) {
-                        if (!font.file.parent().equals(fileHandle.parent())) {
-                            font.file.copyTo(fileHandle.parent());
-                        }
-                    }
-
-                    for (FreeTypeFontData font : projectData.getJsonData().getFreeTypeFonts()) {
-                        if (font.useCustomSerializer && !font.file.parent().equals(fileHandle.parent())) {
-                            font.file.copyTo(fileHandle.parent());
-                        }
-                    }
+                        break;
+                    case FONTS:
+                        dialogFactory.showDialogError("Font Error...", "Error while copying fonts.\n\nOpen log?");
+                        break;
                 }
+            }
 
-                if (warnings.size > 0 && projectData.isShowingExportWarnings()) {
+            @Override
+            public void finished(Array<String> warnings, boolean cancelled) {
+                dialogProgress.hide();
+                
+                if (!cancelled && warnings.size > 0 && projectData.isShowingExportWarnings()) {
                     dialogFactory.showWarningDialog(warnings);
                 }
-            });
+            }
         });
     }
 
@@ -302,6 +302,18 @@ public class DialogFactory {
         textField.setFocusTraversal(false);
     }
 
+    /**
+     * Duplicates the style in a transaction. If the copy fails, nothing is
+     * added to the undo history.
+     * @param originalStyle
+     * @param name 
+     */
+    private void duplicateStyle(StyleData originalStyle, String name) {
+        undoableManager.transaction(null, () -> {
+            undoableManager.addUndoable(new DuplicateStyleUndoable(originalStyle, name, main), true);
+        });
+    }
+    
     public void showDuplicateStyleDialog(Skin skin, Stage stage) {
         Class selectedClass = rootTable.getSelectedClass();
         StyleData originalStyle = rootTable.getSelectedStyle();
@@ -311,7 +323,7 @@ public class DialogFactory {
             @Override
             protected void result(Object object) {
                 if ((Boolean) object) {
-                    undoableManager.addUndoable(new DuplicateStyleUndoable(originalStyle, textField.getText(), main), true);
+                    duplicateStyle(originalStyle, textField.getText());
                 }
             }
         };
@@ -325,7 +337,7 @@ public class DialogFactory {
         textField.setTextFieldListener((TextField textField1, char c) -> {
             if (c == '\n') {
                 if (!okButton.isDisabled()) {
-                    undoableManager.addUndoable(new DuplicateStyleUndoable(originalStyle, textField.getText(), main), true);
+                    duplicateStyle(originalStyle, textField.getText());
                     dialog.hide();
                 }
                 stage.setKeyboardFocus(textField1);
@@ -777,6 +789,7 @@ public class DialogFactory {
                                 }
                             });
                         } else if ((int) object == 1) {
+                            projectJournal.discard();
                             Gdx.app.exit();
                         }
 
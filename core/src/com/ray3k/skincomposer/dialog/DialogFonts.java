@@ -35,13 +35,13 @@ import com.badlogic.gdx.scenes.scene2d.*;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.*;
 import com.ray3k.skincomposer.FilesDroppedListener;
 import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.UndoableManager.CustomFontUndoable;
 import com.ray3k.skincomposer.UndoableManager.FontUndoable;
 import com.ray3k.skincomposer.data.*;
+import com.ray3k.skincomposer.data.ReferenceChecker.ResourceType;
 import com.ray3k.skincomposer.data.DrawableData.DrawableType;
 import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.stripe.PopTableClickListener;
@@ -300,15 +300,7 @@ public class DialogFonts extends Dialog {
                     var duplicateDrawable = atlasData.getDrawable(imagefile.nameWithoutExtension());
                     if (duplicateDrawable != null) {
                         drawables.removeValue(duplicateDrawable, false);
-                        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData data : datas) {
-                                for (StyleProperty styleProperty : data.properties.values()) {
-                                    if (styleProperty != null && styleProperty.type.equals(Drawable.class) && styleProperty.value != null && styleProperty.value.equals(duplicateDrawable.toString())) {
-                                        styleProperty.value = null;
-                                    }
-                                }
-                            }
-                        }
+                        jsonData.getReferenceChecker().removed(ResourceType.DRAWABLE, duplicateDrawable.toString());
                         rootTable.refreshStyleProperties(true);
                         rootTable.refreshPreview();
                     }
@@ -438,15 +430,7 @@ public class DialogFonts extends Dialog {
                             fontDrawables.removeValue(new DrawableData(imagefile), false);
                         }
                         
-                        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData data : datas) {
-                                for (StyleProperty property : data.properties.values()) {
-                                    if (property != null && property.type.equals(BitmapFont.class) && property.value != null && property.value.equals(deleteFont.getName())) {
-                                        property.value = null;
-                                    }
-                                }
-                            }
-                        }
+                        jsonData.getReferenceChecker().removed(ResourceType.FONT, deleteFont.getName());
                         
                         undoableManager.clearUndoables();
                         
@@ -560,15 +544,7 @@ public class DialogFonts extends Dialog {
                         freeTypeFonts.removeValue(deleteFont, true);
                         projectData.setChangesSaved(false);
                         
-                        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData data : datas) {
-                                for (StyleProperty property : data.properties.values()) {
-                                    if (property != null && property.type.equals(BitmapFont.class) && property.value != null && property.value.equals(deleteFont.name)) {
-                                        property.value = null;
-                                    }
-                                }
-                            }
-                        }
+                        jsonData.getReferenceChecker().removed(ResourceType.FONT, deleteFont.name);
                         
                         undoableManager.clearUndoables();
                         
@@ -707,15 +683,7 @@ public class DialogFonts extends Dialog {
     }
     
     private void renameFont(FontData font, String newName) {
-        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-            for (StyleData data : datas) {
-                for (StyleProperty property : data.properties.values()) {
-                    if (property != null && property.type.equals(BitmapFont.class) && property.value != null && property.value.equals(font.getName())) {
-                        property.value = newName;
-                    }
-                }
-            }
-        }
+        jsonData.getReferenceChecker().renamed(ResourceType.FONT, font.getName(), newName);
         
         try {
             font.setName(newName);
@@ -1028,9 +996,7 @@ public class DialogFonts extends Dialog {
     private void newBitmapFontDialog() {
         desktopWorker.removeFilesDroppedListener(filesDroppedListener);
         
-        dialogFactory.showDialogBitmapFont((FileHandle file) -> {
-            var files = new Array<FileHandle>();
-            files.add(file);
+        dialogFactory.showDialogBitmapFont((Array<FileHandle> files) -> {
             fontNameDialog(files, 0);
         
 
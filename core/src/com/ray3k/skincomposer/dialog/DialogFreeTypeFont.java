@@ -47,6 +47,7 @@ import com.ray3k.skincomposer.LeadingTruncateLabel;
 import com.ray3k.skincomposer.Main;
 import com.ray3k.stripe.Spinner;
 import com.ray3k.skincomposer.data.*;
+import com.ray3k.skincomposer.data.ReferenceChecker.ResourceType;
 import com.ray3k.skincomposer.utils.Utils;
 
 import java.io.File;
@@ -208,15 +209,7 @@ public class DialogFreeTypeFont extends Dialog {
             case GENERATE:
                 if (mode == Mode.EDIT) {
                     if (!originalData.name.equals(data.name)) {
-                        for (Array<StyleData> styleDatas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData styleData : styleDatas) {
-                                for (StyleProperty property : styleData.properties.values()) {
-                                    if (property != null && property.type.equals(BitmapFont.class) && property.value != null && property.value.equals(originalData.name)) {
-                                        property.value = data.name;
-                                    }
-                                }
-                            }
-                        }
+                        jsonData.getReferenceChecker().renamed(ResourceType.FONT, originalData.name, data.name);
                     }
 
                     originalData.bitmapFont.dispose();
@@ -33,11 +33,13 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.ray3k.skincomposer.DesktopWorker;
 import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.data.DrawableData;
 import com.ray3k.skincomposer.data.FontData;
 import com.ray3k.skincomposer.data.FreeTypeFontData;
+import com.ray3k.skincomposer.utils.PathVerifier;
 import com.ray3k.skincomposer.utils.Utils;
 
 import static com.ray3k.skincomposer.Main.*;
@@ -73,10 +75,30 @@ public class DialogPathErrors extends Dialog {
         table.add(label);
         
         table.row();
-        label = new Label("The following assets could not be found. Please resolve by clicking the associated button.", skin);
+        label = new Label("The following assets could not be found. Please resolve by clicking the associated button\nor search a folder and its subfolders for all of them at once.", skin);
         label.setAlignment(Align.center);
         table.add(label).padBottom(0);
         
+        table.row();
+        var searchButton = new TextButton("Search Folder...", skin);
+        searchButton.addListener(handListener);
+        table.add(searchButton).padBottom(0);
+        searchButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                dialogFactory.showDialogLoading(() -> {
+                    File folder = desktopWorker.selectFolderDialog("Select a folder to search for missing files...", projectData.getLastOpenSavePath());
+                    if (folder != null) {
+                        var index = PathVerifier.indexFolder(new FileHandle(folder));
+                        Gdx.app.postRunnable(() -> {
+                            resolveAssetsFromIndex(index, drawables, fonts, freeTypeFonts);
+                            resetDrawableTable(main, skin, drawables, fonts, freeTypeFonts);
+                        });
+                    }
+                });
+            }
+        });
+        
         table.row();
         dataTable = new Table();
         scrollPane = new ScrollPane(dataTable, skin);
@@ -327,10 +349,12 @@ public class DialogPathErrors extends Dialog {
 
     private void resolveAssetsFromFolder(FileHandle folder, Array<DrawableData> drawables, Array<FontData> fonts, Array<FreeTypeFontData> freeTypeFonts) {
         if (folder.isDirectory()) {
+            var verifier = new PathVerifier();
+            
             for (DrawableData drawable : drawables) {
                 if (!foundDrawables.contains(drawable, true)) {
                     FileHandle file = folder.child(drawable.file.name());
-                    if (file.exists()) {
+                    if (verifier.exists(file)) {
                         drawable.file = file;
                         foundDrawables.add(drawable);
                     }
@@ -340,7 +364,7 @@ public class DialogPathErrors extends Dialog {
             for (FontData font : fonts) {
                 if (!foundFonts.contains(font, true)) {
                     FileHandle file = folder.child(font.file.name());
-                    if (file.exists()) {
+                    if (verifier.exists(file)) {
                         font.file = file;
                         foundFonts.add(font);
                     }
@@ -350,7 +374,7 @@ public class DialogPathErrors extends Dialog {
             for (var font : freeTypeFonts) {
                 if (!foundFreeTypeFonts.contains(font, true)) {
                     FileHandle file = folder.child(font.file.name());
-                    if (file.exists()) {
+                    if (verifier.exists(file)) {
                         font.file = file;
                         foundFreeTypeFonts.add(font);
                     }
@@ -361,6 +385,41 @@ public class DialogPathErrors extends Dialog {
         applyButton.setDisabled(foundDrawables.size != drawables.size || foundFonts.size != fonts.size);
     }
     
+    /**
+     * Relinks every missing file whose name is found in the index.
+     * @param index A map of file names to files created by PathVerifier.indexFolder()
+     * @param drawables
+     * @param fonts
+     * @param freeTypeFonts 
+     */
+    private void resolveAssetsFromIndex(ObjectMap<String, FileHandle> index, Array<DrawableData> drawables, Array<FontData> fonts, Array<FreeTypeFontData> freeTypeFonts) {
+        for (DrawableData drawable : drawables) {
+            FileHandle file = index.get(drawable.file.name());
+            if (file != null && !foundDrawables.contains(drawable, true)) {
+                drawable.file = file;
+                foundDrawables.add(drawable);
+            }
+        }
+        
+        for (FontData font : fonts) {
+            FileHandle file = index.get(font.file.name());
+            if (file != null && !foundFonts.contains(font, true)) {
+                font.file = file;
+                foundFonts.add(font);
+            }
+        }
+        
+        for (var font : freeTypeFonts) {
+            FileHandle file = index.get(font.file.name());
+            if (file != null && !foundFreeTypeFonts.contains(font, true)) {
+                font.file = file;
+                foundFreeTypeFonts.add(font);
+            }
+        }
+        
+        applyButton.setDisabled(foundDrawables.size != drawables.size || foundFonts.size != fonts.size);
+    }
+    
     @Override
     public boolean remove() {
         return super.remove();
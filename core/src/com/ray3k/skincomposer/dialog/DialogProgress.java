@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.dialog;
+
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.utils.Align;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * A loading dialog that displays a progress message and offers to cancel the
+ * running task. The progress must be updated from the application thread.
+ */
+public class DialogProgress extends Dialog {
+    private Label progressLabel;
+    private TextButton cancelButton;
+    private Runnable cancelRunnable;
+    
+    public DialogProgress(String title, Runnable cancelRunnable) {
+        super("", skin, !DialogSceneComposer.isShowing() ? "dialog" : "scene");
+        this.cancelRunnable = cancelRunnable;
+        setFillParent(true);
+        
+        Table t = getContentTable();
+        Label label = new Label(title, skin, !DialogSceneComposer.isShowing() ? "title" : "scene-title");
+        label.setAlignment(Align.center);
+        t.add(label);
+        t.row();
+        Table table = new Table(skin);
+        table.setBackground(!DialogSceneComposer.isShowing() ? loadingAnimation : loadingAnimation2);
+        t.add(table);
+        t.row();
+        progressLabel = new Label("", skin, !DialogSceneComposer.isShowing() ? "default" : "scene-label");
+        progressLabel.setAlignment(Align.center);
+        t.add(progressLabel);
+        
+        if (cancelRunnable != null) {
+            cancelButton = new TextButton("Cancel", skin, !DialogSceneComposer.isShowing() ? "default" : "scene-med");
+            cancelButton.addListener(handListener);
+            button(cancelButton, true);
+            key(Keys.ESCAPE, true);
+        }
+    }
+    
+    public void setProgress(String text) {
+        progressLabel.setText(text);
+    }
+    
+    @Override
+    protected void result(Object object) {
+        cancel();
+        cancelButton.setDisabled(true);
+        progressLabel.setText("Cancelling...");
+        if (cancelRunnable != null) {
+            cancelRunnable.run();
+        }
+    }
+}
@@ -19,12 +19,13 @@ import static com.ray3k.skincomposer.Main.*;
 
 public class PopSettings extends PopTable {
     private int uiScale;
-    private Integer maxUndos;
+    private Integer undoMemory;
     private boolean resourcesRelative;
     private boolean allowingWelcome;
     private boolean exportWarnings;
     private boolean recentFullPath;
     private boolean allowingUpdates;
+    private boolean prettyPrint;
     
     public PopSettings() {
         super(skin, "dialog");
@@ -34,12 +35,13 @@ public class PopSettings extends PopTable {
         setHideOnUnfocus(true);
         
         uiScale = projectData.getUiScale();
-        maxUndos = projectData.getMaxUndos();
+        undoMemory = projectData.getUndoMemory();
         resourcesRelative = projectData.areResourcesRelative();
         allowingWelcome = projectData.isAllowingWelcome();
         exportWarnings = projectData.isShowingExportWarnings();
         recentFullPath = projectData.isFullPathInRecentFiles();
         allowingUpdates = projectData.isCheckingForUpdates();
+        prettyPrint = projectData.isPrettyPrintingProjects();
         
         populate();
     }
@@ -109,8 +111,7 @@ public class PopSettings extends PopTable {
                     public void changed(ChangeListener.ChangeEvent event,
                                         Actor actor) {
                         try {
-                            Utils.openFileExplorer(projectData.getSaveFile().sibling(
-                                    projectData.getSaveFile().nameWithoutExtension() + "_data"));
+                            Utils.openFileExplorer(projectData.getDataFolder(projectData.getSaveFile()));
                         } catch (Exception e) {
                             Gdx.app.error(getClass().getName(), "Error opening project folder", e);
                             dialogFactory.showDialogError("Folder Error...",
@@ -200,23 +201,23 @@ public class PopSettings extends PopTable {
         add(table);
         
         table.defaults().space(5);
-        label = new Label("Max Number of Undos: ", skin);
+        label = new Label("Undo History Memory (MB): ", skin);
         table.add(label);
         
-        var spinner = new Spinner(projectData.getMaxUndos(), 1.0, true, Orientation.HORIZONTAL, getSkin());
+        var spinner = new Spinner(projectData.getUndoMemory(), 1.0, true, Orientation.HORIZONTAL, getSkin());
         spinner.setMinimum(1.0);
-        spinner.setMaximum(100.0);
+        spinner.setMaximum(256.0);
         spinner.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeListener.ChangeEvent event, Actor actor) {
-                maxUndos = (int) spinner.getValue();
+                undoMemory = (int) spinner.getValue();
             }
         });
         spinner.addListener(new FocusListener() {
             @Override
             public void keyboardFocusChanged(FocusListener.FocusEvent event,
                                              Actor actor, boolean focused) {
-                maxUndos = (int) spinner.getValue();
+                undoMemory = (int) spinner.getValue();
             }
             
         });
@@ -288,6 +289,18 @@ public class PopSettings extends PopTable {
             }
         });
         table.add(updatesCheckBox);
+
+        table.row();
+        var prettyPrintCheckBox = new ImageTextButton("Pretty print project files?", getSkin(), "checkbox");
+        prettyPrintCheckBox.setChecked(prettyPrint);
+        prettyPrintCheckBox.addListener(handListener);
+        prettyPrintCheckBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                prettyPrint = prettyPrintCheckBox.isChecked();
+            }
+        });
+        table.add(prettyPrintCheckBox);
         
         row();
         var buttonTable = new Table();
@@ -322,13 +335,14 @@ public class PopSettings extends PopTable {
     
     private void approve() {
         projectData.setChangesSaved(false);
-        projectData.setMaxUndos(maxUndos);
+        projectData.setUndoMemory(undoMemory);
         projectData.setResourcesRelative(resourcesRelative);
         projectData.setAllowingWelcome(allowingWelcome);
         projectData.setUiScale(uiScale);
         projectData.setShowingExportWarnings(exportWarnings);
         projectData.setFullPathInRecentFiles(recentFullPath);
         projectData.setCheckingForUpdates(allowingUpdates);
+        projectData.setPrettyPrintingProjects(prettyPrint);
         undoableManager.clearUndoables();
     
         if (allowingUpdates) {
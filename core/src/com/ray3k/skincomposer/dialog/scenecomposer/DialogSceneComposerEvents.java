@@ -96,9 +96,7 @@ public class DialogSceneComposerEvents {
     }
     
     private void processUndoable(SceneComposerUndoable undoable) {
-        dialog.model.undoables.add(undoable);
-        dialog.model.redoables.clear();
-        undoable.redo();
+        dialog.model.addUndoable(undoable);
         dialog.updateMenuUndoRedo();
         Main.projectData.setChangesSaved(false);
     }
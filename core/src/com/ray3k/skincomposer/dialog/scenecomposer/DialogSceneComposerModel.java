@@ -9,6 +9,7 @@ import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.utils.*;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.data.ColorData;
@@ -26,14 +27,39 @@ import java.util.regex.Pattern;
 import static com.ray3k.skincomposer.Main.*;
 import static com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer.dialog;
 
+/**
+ * The scene composer layout being edited and its undo history. The history is
+ * bounded by the undo memory setting of the project, but the bound is only as
+ * good as the estimates it adds up. Nothing is measured: each SimActor in a
+ * subtree kept by an undoable counts as SIM_ACTOR_SIZE (256) bytes and every
+ * other undoable counts as UndoableManager.UNDOABLE_SIZE. Property edits only
+ * keep the previous and new value, but the text of a label or the items of a
+ * list are not counted, nor are actors holding more than the estimate. A
+ * history of such edits can retain more than the budget allows.
+ */
 public class DialogSceneComposerModel {
     public transient Array<SceneComposerUndoable> undoables;
     public transient Array<SceneComposerUndoable> redoables;
+    /**
+     * The sizes of the undoables and redoables, taken when each was added.
+     */
+    private final transient LongArray undoableSizes = new LongArray(), redoableSizes = new LongArray();
+    private transient long retainedSize;
     public static SimRootGroup rootActor;
     public transient Stack preview;
     private static Json json;
     private final static Vector2 temp = new Vector2();
     private final static int EDIT_EMPTY_WIDGET_SIZE = 50;
+    /**
+     * Approximate footprint of a SimActor kept in the undo history. An
+     * estimate, not a measurement, see the class documentation.
+     */
+    public final static long SIM_ACTOR_SIZE = 256;
+    private View previewView;
+    private final ObjectMap<String, SimActor> nameIndex = new ObjectMap<>();
+    private final EditWidgetPool selectBackWidgets = new EditWidgetPool("scene-select-back");
+    private final EditWidgetPool selectionWidgets = new EditWidgetPool("scene-selection");
+    private final EditWidgetPool selectorWidgets = new EditWidgetPool("scene-selector");
     
     public enum Interpol {
         LINEAR(Interpolation.linear, "Linear", "linear"), SMOOTH(Interpolation.smooth, "Smooth", "smooth"), SMOOTH2(
@@ -163,6 +189,9 @@ public class DialogSceneComposerModel {
         if (rootActor == null) rootActor = new SimRootGroup();
         assignParentRecursive(rootActor);
         primeStyles();
+        
+        //styles and drawables may have changed since the scene composer was last open
+        rootActor.releasePreview();
     }
     
     private void primeStyles() {
@@ -170,42 +199,146 @@ public class DialogSceneComposerModel {
     }
     
     private void primeStyles(SimActor simActor) {
-        for (var field : ClassReflection.getFields(simActor.getClass())) {
-            if (field.getType() == StyleData.class) {
-                try {
-                    var style = (StyleData) field.get(simActor);
-                    if (style != null) {
-                        StyleData foundStyle = jsonData.findStyle(style.clazz, style.name);
-                        if (foundStyle == null) foundStyle = jsonData.findStyle(style.clazz, "default");
-                        if (foundStyle == null)
-                            foundStyle = jsonData.findStyle(style.clazz, "default-horizontal");
-                        field.set(simActor, foundStyle);
+        primeStyles(simActor, new ObjectMap<>(), new ObjectMap<>());
+    }
+    
+    /**
+     * Replaces the styles and drawables of the SimActor tree with the ones
+     * currently in the project. Each distinct style class and name and each
+     * drawable name is looked up once per pass.
+     * @param simActor
+     * @param styles
+     * @param drawables 
+     */
+    private void primeStyles(SimActor simActor, ObjectMap<Class, ObjectMap<String, StyleData>> styles, ObjectMap<String, DrawableData> drawables) {
+        var fields = SimFields.of(simActor.getClass());
+        for (var field : fields.styleFields) {
+            try {
+                var style = (StyleData) field.get(simActor);
+                if (style != null) {
+                    //loaded actors each hold their own StyleData, so lookups are keyed by class and name
+                    StyleData foundStyle;
+                    if (style.clazz == null || style.name == null) {
+                        foundStyle = findProjectStyle(style);
+                    } else {
+                        var classStyles = styles.get(style.clazz);
+                        if (classStyles == null) {
+                            classStyles = new ObjectMap<>();
+                            styles.put(style.clazz, classStyles);
+                        }
+                        
+                        if (classStyles.containsKey(style.name)) {
+                            foundStyle = classStyles.get(style.name);
+                        } else {
+                            foundStyle = findProjectStyle(style);
+                            classStyles.put(style.name, foundStyle);
+                        }
                     }
-                } catch (ReflectionException e) {
-                    e.printStackTrace(System.out);
+                    field.set(simActor, foundStyle);
                 }
-            } else if (field.getType() == DrawableData.class) {
-                try {
-                    var drawable = (DrawableData) field.get(simActor);
-                    if (drawable != null) {
-                        var foundDrawable = atlasData.getDrawable(drawable.name);
-                        field.set(simActor, foundDrawable);
+            } catch (ReflectionException e) {
+                e.printStackTrace(System.out);
+            }
+        }
+        
+        for (var field : fields.drawableFields) {
+            try {
+                var drawable = (DrawableData) field.get(simActor);
+                if (drawable != null) {
+                    DrawableData foundDrawable;
+                    if (drawable.name == null) {
+                        foundDrawable = atlasData.getDrawable(drawable.name);
+                    } else if (drawables.containsKey(drawable.name)) {
+                        foundDrawable = drawables.get(drawable.name);
+                    } else {
+                        foundDrawable = atlasData.getDrawable(drawable.name);
+                        drawables.put(drawable.name, foundDrawable);
                     }
-                } catch (ReflectionException e) {
-                    e.printStackTrace(System.out);
+                    field.set(simActor, foundDrawable);
                 }
+            } catch (ReflectionException e) {
+                e.printStackTrace(System.out);
             }
         }
         
         if (simActor instanceof SimMultipleChildren) {
             for (var child : ((SimMultipleChildren) simActor).getChildren()) {
-                if (child != null) primeStyles(child);
+                if (child != null) primeStyles(child, styles, drawables);
             }
         }
         
         if (simActor instanceof SimSingleChild) {
             var child = ((SimSingleChild) simActor).getChild();
-            if (child != null) primeStyles(child);
+            if (child != null) primeStyles(child, styles, drawables);
+        }
+    }
+    
+    private StyleData findProjectStyle(StyleData style) {
+        StyleData foundStyle = jsonData.findStyle(style.clazz, style.name);
+        if (foundStyle == null) foundStyle = jsonData.findStyle(style.clazz, "default");
+        if (foundStyle == null) foundStyle = jsonData.findStyle(style.clazz, "default-horizontal");
+        return foundStyle;
+    }
+    
+    /**
+     * The public fields of a SimActor class grouped by how the model uses
+     * them. Looked up with reflection once per class.
+     */
+    private static class SimFields {
+        private final static ObjectMap<Class, SimFields> cache = new ObjectMap<>();
+        final Field[] styleFields;
+        final Field[] drawableFields;
+        /**
+         * All non-static, non-transient fields. These are the fields that are
+         * saved and that a preview is built from.
+         */
+        final Field[] stateFields;
+        /**
+         * The state fields holding a child SimActor and the ones holding an
+         * Array of child SimActors. Children are copied by duplicate().
+         */
+        final Field[] childFields, childArrayFields;
+        /**
+         * The remaining state fields. Their values are shared by duplicate().
+         */
+        final Field[] valueFields;
+        
+        private SimFields(Class type) {
+            var styles = new Array<Field>(Field.class);
+            var drawables = new Array<Field>(Field.class);
+            var state = new Array<Field>(Field.class);
+            var children = new Array<Field>(Field.class);
+            var childArrays = new Array<Field>(Field.class);
+            var values = new Array<Field>(Field.class);
+            for (var field : ClassReflection.getFields(type)) {
+                if (field.isStatic() || field.isTransient()) continue;
+                state.add(field);
+                if (field.getType() == StyleData.class) styles.add(field);
+                else if (field.getType() == DrawableData.class) drawables.add(field);
+                
+                if (SimActor.class.isAssignableFrom(field.getType())) {
+                    children.add(field);
+                } else if (field.getType() == Array.class && field.getElementType(0) != null && SimActor.class.isAssignableFrom(field.getElementType(0))) {
+                    childArrays.add(field);
+                } else {
+                    values.add(field);
+                }
+            }
+            styleFields = styles.toArray();
+            drawableFields = drawables.toArray();
+            stateFields = state.toArray();
+            childFields = children.toArray();
+            childArrayFields = childArrays.toArray();
+            valueFields = values.toArray();
+        }
+        
+        static SimFields of(Class type) {
+            var fields = cache.get(type);
+            if (fields == null) {
+                fields = new SimFields(type);
+                cache.put(type, fields);
+            }
+            return fields;
         }
     }
     
@@ -221,10 +354,52 @@ public class DialogSceneComposerModel {
         assignParentRecursive(rootActor);
     }
     
+    /**
+     * Performs the undoable and adds it to the history. The oldest undoables
+     * are dropped once the history exceeds the undo memory budget of the
+     * project settings.
+     * @param undoable 
+     */
+    public void addUndoable(SceneComposerUndoable undoable) {
+        undoables.add(undoable);
+        redoables.clear();
+        redoableSizes.clear();
+        undoable.redo();
+        
+        //the size is taken once, after the undoable has built what it retains
+        long size = undoable.getRetainedSize();
+        undoableSizes.add(size);
+        retainedSize += size;
+        
+        long budget = projectData.getUndoMemory() * 1024L * 1024L;
+        int offset = 0;
+        while (retainedSize > budget && undoables.size - offset > 1) {
+            retainedSize -= undoableSizes.get(offset);
+            offset++;
+        }
+        if (offset > 0) {
+            undoables.removeRange(0, offset - 1);
+            undoableSizes.removeRange(0, offset - 1);
+        }
+    }
+    
+    /**
+     * Returns the estimated memory retained by a SimActor subtree kept in the
+     * undo history.
+     * @param simActor
+     * @return 
+     */
+    public static long sizeOf(SimActor simActor) {
+        return simActor == null ? 0 : SIM_ACTOR_SIZE * simActor.countActors();
+    }
+    
     public void undo() {
         if (undoables.size > 0) {
             var undoable = undoables.pop();
             redoables.add(undoable);
+            var size = undoableSizes.pop();
+            redoableSizes.add(size);
+            retainedSize -= size;
             
             undoable.undo();
             var fadeLabel = new FadeLabel(undoable.getUndoString(), skin, "scene-edit-tip");
@@ -239,6 +414,9 @@ public class DialogSceneComposerModel {
         if (redoables.size > 0) {
             var undoable = redoables.pop();
             undoables.add(undoable);
+            var size = redoableSizes.pop();
+            undoableSizes.add(size);
+            retainedSize += size;
     
             undoable.redo();
         }
@@ -246,6 +424,17 @@ public class DialogSceneComposerModel {
     
     public void updatePreview() {
         preview.clearChildren();
+        selectBackWidgets.freeActive();
+        selectionWidgets.freeActive();
+        selectorWidgets.freeActive();
+        
+        //preview actors are only reused within the same view
+        if (dialog.view != previewView) {
+            rootActor.releasePreview();
+            previewView = dialog.view;
+        }
+        nameIndex.clear();
+        reconcilePreview(rootActor);
         
         switch (dialog.view) {
             case LIVE:
@@ -264,6 +453,79 @@ public class DialogSceneComposerModel {
         }
     }
     
+    /**
+     * Compares the properties of each SimActor with the ones its preview actor
+     * was created from. Subtrees that haven't changed keep their preview
+     * actors, so an edit only rebuilds the changed actor and its ancestors.
+     * @param simActor
+     * @return true if the preview actors of the whole subtree are current.
+     */
+    private boolean reconcilePreview(SimActor simActor) {
+        if (simActor instanceof SimNamed) {
+            var name = ((SimNamed) simActor).getName();
+            if (name != null) {
+                name = name.toLowerCase(Locale.ROOT);
+                if (!nameIndex.containsKey(name)) nameIndex.put(name, simActor);
+            }
+        }
+        
+        boolean current = true;
+        if (simActor instanceof SimSingleChild) {
+            var child = ((SimSingleChild) simActor).getChild();
+            if (child != null && !reconcilePreview(child)) current = false;
+        }
+        
+        if (simActor instanceof SimMultipleChildren) {
+            for (var child : ((SimMultipleChildren) simActor).getChildren()) {
+                if (child != null && !reconcilePreview(child)) current = false;
+            }
+        }
+        
+        var state = capturePreviewState(simActor);
+        if (!sameValue(state, simActor.previewState)) current = false;
+        simActor.previewState = state;
+        simActor.previewCurrent = current;
+        return current;
+    }
+    
+    private static Object[] capturePreviewState(SimActor simActor) {
+        var fields = SimFields.of(simActor.getClass()).stateFields;
+        var state = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            try {
+                var value = fields[i].get(simActor);
+                if (value instanceof Array) value = ((Array) value).toArray(Object.class);
+                state[i] = value;
+            } catch (ReflectionException e) {
+                e.printStackTrace(System.out);
+            }
+        }
+        return state;
+    }
+    
+    /**
+     * Values are compared by equality, other objects such as SimActors, styles
+     * and drawables by identity.
+     * @param a
+     * @param b
+     * @return 
+     */
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof Object[] && b instanceof Object[]) {
+            var arrayA = (Object[]) a;
+            var arrayB = (Object[]) b;
+            if (arrayA.length != arrayB.length) return false;
+            for (int i = 0; i < arrayA.length; i++) {
+                if (!sameValue(arrayA[i], arrayB[i])) return false;
+            }
+            return true;
+        } else if (a instanceof String || a instanceof Number || a instanceof Boolean || a instanceof Character) {
+            return a.equals(b);
+        } else {
+            return a == b;
+        }
+    }
+    
     private Cell findCell(Table table, int row, int column) {
         for (var cell : table.getCells()) {
             if (cell.getColumn() == column && cell.getRow() == row) {
@@ -275,8 +537,33 @@ public class DialogSceneComposerModel {
         return null;
     }
     
+    /**
+     * Finds an actor by its lower case name. Uses the index of names built by
+     * the last updatePreview(), which follows every change to the scene.
+     * @param name
+     * @return 
+     */
     public SimActor findSimActorByName(String name) {
-        return findSimActorByName(name, rootActor);
+        return nameIndex.get(name);
+    }
+    
+    /**
+     * Indexes the cells of a preview table by row and by their position in the
+     * row, matching the lookup of findCell() for every cell at once.
+     * @param table
+     * @return 
+     */
+    private IntMap<IntMap<Cell>> indexPreviewCells(Table table) {
+        var previewCells = new IntMap<IntMap<Cell>>();
+        for (var cell : table.getCells()) {
+            var row = previewCells.get(cell.getRow());
+            if (row == null) {
+                row = new IntMap<>();
+                previewCells.put(cell.getRow(), row);
+            }
+            row.put(row.size, cell);
+        }
+        return previewCells;
     }
     
     public SimActor findSimActorByName(String name, SimActor parent) {
@@ -303,7 +590,7 @@ public class DialogSceneComposerModel {
     
     private void createEditWidgets() {
         if (dialog.simActor.parent != null) {
-            var edit = new EditWidget(skin, "scene-select-back");
+            var edit = selectBackWidgets.obtain();
             edit.setFillParent(true);
             edit.setSimActorTarget(dialog.simActor.parent);
             preview.add(edit);
@@ -311,29 +598,30 @@ public class DialogSceneComposerModel {
         
         if (dialog.simActor instanceof SimRootGroup) {
             var simGroup = (SimRootGroup) dialog.simActor;
-            var edit = new EditWidget(skin, "scene-selection");
+            var edit = selectionWidgets.obtain();
             edit.setFillParent(true);
             edit.setSimActorTarget(dialog.simActor.parent);
             preview.add(edit);
     
             if (simGroup.children.size > 0) {
-                edit = new EditWidget(skin, "scene-selector");
+                edit = selectorWidgets.obtain();
                 edit.setFillParent(true);
                 edit.setSimActorTarget(simGroup.children.peek());
                 preview.add(edit);
             }
         } else if (dialog.simActor instanceof SimTable) {
-            var edit = new EditWidget(skin, "scene-selection");
+            var edit = selectionWidgets.obtain();
             edit.setFollowActor(dialog.simActor.previewActor);
             edit.setSimActorTarget(dialog.simActor.parent);
             preview.add(edit);
             
             var simTable = (SimTable) dialog.simActor;
+            var previewCells = indexPreviewCells((Table) simTable.previewActor);
             for (var simCell : simTable.cells) {
-                var table = (Table) simTable.previewActor;
-                var cell = findCell(table, simCell.row, simCell.column);
+                var previewRow = previewCells.get(simCell.row);
+                var cell = previewRow == null ? null : previewRow.get(simCell.column);
                 
-                edit = new EditWidget(skin, "scene-selector");
+                edit = selectorWidgets.obtain();
                 edit.setCell(cell);
                 edit.setSimActorTarget(simCell);
                 preview.add(edit);
@@ -343,19 +631,19 @@ public class DialogSceneComposerModel {
             var table = (Table) ((SimTable) simCell.parent).previewActor;
             var cell = findCell(table, simCell.row, simCell.column);
             
-            var edit = new EditWidget(skin, "scene-selection");
+            var edit = selectionWidgets.obtain();
             edit.setCell(cell);
             edit.setSimActorTarget(dialog.simActor.parent);
             preview.add(edit);
             
             if (simCell.child != null) {
-                edit = new EditWidget(skin, "scene-selector");
+                edit = selectorWidgets.obtain();
                 edit.setFollowActor(simCell.child.previewActor);
                 edit.setSimActorTarget(simCell.child);
                 preview.add(edit);
             }
         }  else if (dialog.simActor.previewActor != null) {
-            var edit = new EditWidget(skin, "scene-selection");
+            var edit = selectionWidgets.obtain();
             edit.setFollowActor(dialog.simActor.previewActor);
             edit.setSimActorTarget(dialog.simActor.parent);
             preview.add(edit);
@@ -363,7 +651,7 @@ public class DialogSceneComposerModel {
             if (dialog.simActor instanceof SimSingleChild) {
                 var child = ((SimSingleChild) dialog.simActor).getChild();
                 if (child != null) {
-                    edit = new EditWidget(skin, "scene-selector");
+                    edit = selectorWidgets.obtain();
                     edit.setFollowActor(child.previewActor);
                     edit.setSimActorTarget(child);
                     preview.add(edit);
@@ -373,7 +661,7 @@ public class DialogSceneComposerModel {
             if (dialog.simActor instanceof SimMultipleChildren) {
                 var children = ((SimMultipleChildren) dialog.simActor).getChildren();
                 for (var child : children) {
-                    edit = new EditWidget(skin, "scene-selector");
+                    edit = selectorWidgets.obtain();
                     edit.setFollowActor(child.previewActor);
                     edit.setSimActorTarget(child);
                     preview.add(edit);
@@ -382,6 +670,39 @@ public class DialogSceneComposerModel {
         }
     }
     
+    /**
+     * Edit widgets of a single style that are reused between preview updates.
+     */
+    private static class EditWidgetPool extends Pool<EditWidget> {
+        private final String styleName;
+        private final Array<EditWidget> active = new Array<>();
+    
+        public EditWidgetPool(String styleName) {
+            this.styleName = styleName;
+        }
+    
+        @Override
+        protected EditWidget newObject() {
+            return new EditWidget(skin, styleName);
+        }
+    
+        @Override
+        public EditWidget obtain() {
+            var edit = super.obtain();
+            active.add(edit);
+            return edit;
+        }
+    
+        /**
+         * Returns every widget obtained since the last call to the pool so they
+         * can be reused by the next preview update.
+         */
+        public void freeActive() {
+            freeAll(active);
+            active.clear();
+        }
+    }
+    
     private void createPreviewWidgets() {
         for (var simActor : rootActor.children) {
             var actor = createPreviewWidget(simActor);
@@ -410,6 +731,10 @@ public class DialogSceneComposerModel {
     }
     
     private Actor createPreviewWidget(SimActor simActor) {
+        if (simActor != null && simActor.previewCurrent && simActor.previewActor != null) {
+            return simActor.previewActor;
+        }
+        
         Actor actor = null;
     
         if (simActor instanceof SimTable) {
@@ -983,6 +1308,8 @@ public class DialogSceneComposerModel {
     public static class SimActor {
         public transient SimActor parent;
         public transient Actor previewActor;
+        transient Object[] previewState;
+        transient boolean previewCurrent;
         
         public boolean hasChildOfTypeRecursive(Class type) {
             boolean returnValue = false;
@@ -1007,12 +1334,93 @@ public class DialogSceneComposerModel {
             return returnValue;
         }
         
+        /**
+         * Returns a copy of this actor with copies of its children, walking
+         * the cached SimFields accessors. Other values, such as styles,
+         * drawables, colors and the items of Lists and SelectBoxes, are shared
+         * with the copy. The subtree itself is always copied in full: every
+         * SimActor knows its parent and the public fields are written directly
+         * by the undoables, so a child can't be shared between two trees and
+         * split off when one of them is edited.
+         * @return 
+         */
         public SimActor duplicate() {
-            var simActor = new SimActor();
+            var fields = SimFields.of(getClass());
+            try {
+                var simActor = (SimActor) ClassReflection.newInstance(getClass());
+                simActor.parent = parent;
+                
+                for (var field : fields.valueFields) {
+                    field.set(simActor, field.get(this));
+                }
+                
+                for (var field : fields.childFields) {
+                    var child = (SimActor) field.get(this);
+                    if (child != null) {
+                        var duplicate = child.duplicate();
+                        duplicate.parent = simActor;
+                        field.set(simActor, duplicate);
+                    }
+                }
+                
+                for (var field : fields.childArrayFields) {
+                    var children = (Array<SimActor>) field.get(this);
+                    if (children == null) continue;
+                    
+                    var duplicates = new Array<SimActor>(children.size);
+                    field.set(simActor, duplicates);
+                    for (var child : children) {
+                        var duplicate = child.duplicate();
+                        duplicate.parent = simActor;
+                        duplicates.add(duplicate);
+                    }
+                }
+                
+                return simActor;
+            } catch (ReflectionException e) {
+                throw new GdxRuntimeException(e);
+            }
+        }
+        
+        /**
+         * Returns the number of SimActors in the subtree starting with this
+         * actor.
+         * @return 
+         */
+        public int countActors() {
+            int count = 1;
+            if (this instanceof SimSingleChild) {
+                var child = ((SimSingleChild) this).getChild();
+                if (child != null) count += child.countActors();
+            }
             
-            simActor.parent = parent;
+            if (this instanceof SimMultipleChildren) {
+                for (var child : ((SimMultipleChildren) this).getChildren()) {
+                    if (child != null) count += child.countActors();
+                }
+            }
+            return count;
+        }
+        
+        /**
+         * Drops the preview actors of this subtree. Called when the subtree is
+         * detached from the scene so that keeping it in the undo history
+         * doesn't also keep an outdated preview alive.
+         */
+        public void releasePreview() {
+            previewActor = null;
+            previewState = null;
+            previewCurrent = false;
+            if (this instanceof SimSingleChild) {
+                var child = ((SimSingleChild) this).getChild();
+                if (child != null) child.releasePreview();
+            }
             
-            return parent;
+            if (this instanceof SimMultipleChildren) {
+                for (var child : ((SimMultipleChildren) this).getChildren()) {
+                    if (child != null) child.releasePreview();
+                }
+            }
         }
     }
     
@@ -1068,25 +1476,6 @@ public class DialogSceneComposerModel {
         public void removeChild(SimActor simActor) {
             children.removeValue(simActor, true);
         }
-    
-        @Override
-        public SimRootGroup duplicate() {
-            var simRootGroup = new SimRootGroup();
-
-            simRootGroup.parent = parent;
-            
-            for (var actor : children) {
-                simRootGroup.children.add(actor.duplicate());
-                simRootGroup.children.peek().parent = simRootGroup;
-            }
-    
-            simRootGroup.backgroundColor = backgroundColor;
-            simRootGroup.skinPath = skinPath;
-            simRootGroup.packageString = packageString;
-            simRootGroup.classString = classString;
-            
-            return simRootGroup;
-        }
     }
     
     public static class SimTable extends SimActor implements SimMultipleChildren, SimNamed, SimTouchable, SimVisible {
@@ -1103,32 +1492,11 @@ public class DialogSceneComposerModel {
         public boolean fillParent;
         public Touchable touchable = Touchable.childrenOnly;
         public boolean visible = true;
-    
-        @Override
-        public SimTable duplicate() {
-            var simTable = new SimTable();
-            
-            for (var cell : cells) {
-                simTable.cells.add(cell.duplicate());
-                simTable.cells.peek().parent = simTable;
-            }
-            
-            simTable.parent = parent;
-            simTable.name = name;
-            simTable.background = background;
-            simTable.color = color;
-            simTable.padLeft = padLeft;
-            simTable.padRight = padRight;
-            simTable.padTop = padTop;
-            simTable.padBottom = padBottom;
-            simTable.paddingEnabled = paddingEnabled;
-            simTable.alignment = alignment;
-            simTable.fillParent = fillParent;
-            simTable.touchable = touchable;
-            simTable.visible = visible;
-            
-            return simTable;
-        }
+        private transient IntMap<IntMap<SimCell>> cellGrid;
+        private transient IntIntMap rowColumns;
+        private transient int rowCount;
+        private transient Array<SimCell> indexedCells;
+        private transient int indexedSize;
     
         @Override
         public String toString() {
@@ -1137,6 +1505,7 @@ public class DialogSceneComposerModel {
     
         public void reset() {
             cells.clear();
+            invalidateCellGrid();
             name = null;
             background = null;
             color = null;
@@ -1164,6 +1533,36 @@ public class DialogSceneComposerModel {
                     return 0;
                 }
             });
+            invalidateCellGrid();
+        }
+        
+        /**
+         * Marks the (row, column) index of the cells as outdated. Called
+         * whenever cells are added, removed or moved. Undoables that move cells
+         * call sort() which does this for them.
+         */
+        public void invalidateCellGrid() {
+            cellGrid = null;
+        }
+        
+        private void indexCells() {
+            if (cellGrid != null && indexedCells == cells && indexedSize == cells.size) return;
+            
+            cellGrid = new IntMap<>();
+            rowColumns = new IntIntMap();
+            rowCount = 0;
+            for (var cell : cells) {
+                var row = cellGrid.get(cell.row);
+                if (row == null) {
+                    row = new IntMap<>();
+                    cellGrid.put(cell.row, row);
+                }
+                if (!row.containsKey(cell.column)) row.put(cell.column, cell);
+                rowColumns.put(cell.row, Math.max(rowColumns.get(cell.row, 0), cell.column + 1));
+                rowCount = Math.max(rowCount, cell.row + 1);
+            }
+            indexedCells = cells;
+            indexedSize = cells.size;
         }
     
         @Override
@@ -1172,31 +1571,25 @@ public class DialogSceneComposerModel {
         }
     
         public int getColumns(int row) {
-            int columns = 0;
-            for (var cell : cells) {
-                if (cell.row == row) {
-                    if (cell.column > columns - 1) columns = cell.column + 1;
-                }
-            }
-            return columns;
+            indexCells();
+            return rowColumns.get(row, 0);
         }
         
         public int getRows() {
-            int rows = 0;
-            for (var cell : cells) {
-                if (cell.row > rows -1) rows = cell.row + 1;
-            }
-            return rows;
+            indexCells();
+            return rowCount;
         }
         
         @Override
         public void addChild(SimActor simActor) {
             cells.add((SimCell) simActor);
+            invalidateCellGrid();
         }
     
         @Override
         public void removeChild(SimActor simActor) {
             cells.removeValue((SimCell) simActor, true);
+            invalidateCellGrid();
         }
     
         @Override
@@ -1205,15 +1598,9 @@ public class DialogSceneComposerModel {
         }
     
         public SimCell getCell(int column, int row) {
-            SimCell cell = null;
-            for (var testCell : cells) {
-                if (testCell.column == column && testCell.row == row) {
-                    cell = testCell;
-                    break;
-                }
-            }
-            
-            return cell;
+            indexCells();
+            var cellRow = cellGrid.get(row);
+            return cellRow == null ? null : cellRow.get(column);
         }
     
         @Override
@@ -1256,45 +1643,6 @@ public class DialogSceneComposerModel {
         public boolean uniformY;
         public int colSpan = 1;
     
-        @Override
-        public SimCell duplicate() {
-            var simCell = new SimCell();
-            
-            simCell.parent = parent;
-            if (child != null) {
-                simCell.child = child.duplicate();
-                simCell.child.parent = simCell;
-            }
-            simCell.row = row;
-            simCell.column = column;
-            simCell.padLeft = padLeft;
-            simCell.padRight = padRight;
-            simCell.padTop = padTop;
-            simCell.padBottom = padBottom;
-            simCell.spaceLeft = spaceLeft;
-            simCell.spaceRight = spaceRight;
-            simCell.spaceTop = spaceTop;
-            simCell.spaceBottom = spaceBottom;
-            simCell.expandX = expandX;
-            simCell.expandY = expandY;
-            simCell.fillX = fillX;
-            simCell.fillY = fillY;
-            simCell.growX = growX;
-            simCell.growY = growY;
-            simCell.alignment = alignment;
-            simCell.minWidth = minWidth;
-            simCell.minHeight = minHeight;
-            simCell.maxWidth = maxWidth;
-            simCell.maxHeight = maxHeight;
-            simCell.preferredWidth = preferredWidth;
-            simCell.preferredHeight = preferredHeight;
-            simCell.uniformX = uniformX;
-            simCell.uniformY = uniformY;
-            simCell.colSpan = colSpan;
-            
-            return simCell;
-        }
-    
         @Override
         public String toString() {
             return "Cell (" + column + "," + row + ")";
@@ -1349,26 +1697,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimButton duplicate() {
-            var simButton = new SimButton();
-            
-            simButton.parent = parent;
-            simButton.name = name;
-            simButton.style = style;
-            simButton.checked = checked;
-            simButton.disabled = disabled;
-            simButton.color = color;
-            simButton.padLeft = padLeft;
-            simButton.padRight = padRight;
-            simButton.padTop = padTop;
-            simButton.padBottom = padBottom;
-            simButton.touchable = touchable;
-            simButton.visible = visible;
-            
-            return simButton;
-        }
-    
         public SimButton() {
             var styles = Main.jsonData.getClassStyleMap().get(Button.class);
             for (var style : styles) {
@@ -1437,27 +1765,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimCheckBox duplicate() {
-            var simCheckBox = new SimCheckBox();
-            
-            simCheckBox.parent = parent;
-            simCheckBox.name = name;
-            simCheckBox.style = style;
-            simCheckBox.disabled = disabled;
-            simCheckBox.text = text;
-            simCheckBox.color = color;
-            simCheckBox.padLeft = padLeft;
-            simCheckBox.padRight = padRight;
-            simCheckBox.padTop = padTop;
-            simCheckBox.padBottom = padBottom;
-            simCheckBox.checked = checked;
-            simCheckBox.touchable = touchable;
-            simCheckBox.visible = visible;
-            
-            return simCheckBox;
-        }
-    
         public SimCheckBox() {
             var styles = Main.jsonData.getClassStyleMap().get(CheckBox.class);
             for (var style : styles) {
@@ -1520,20 +1827,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimImage duplicate() {
-            var simImage = new SimImage();
-            
-            simImage.parent = parent;
-            simImage.name = name;
-            simImage.drawable = drawable;
-            simImage.scaling = scaling;
-            simImage.touchable = touchable;
-            simImage.visible = visible;
-            
-            return simImage;
-        }
-    
         @Override
         public String toString() {
             return name == null ? "Image" : name + " (Image)";
@@ -1576,26 +1869,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimImageButton duplicate() {
-            var simImageButton = new SimImageButton();
-            
-            simImageButton.parent = parent;
-            simImageButton.name = name;
-            simImageButton.style = style;
-            simImageButton.checked = checked;
-            simImageButton.disabled = disabled;
-            simImageButton.color = color;
-            simImageButton.padLeft = padLeft;
-            simImageButton.padRight = padRight;
-            simImageButton.padTop = padTop;
-            simImageButton.padBottom = padBottom;
-            simImageButton.touchable = touchable;
-            simImageButton.visible = visible;
-            
-            return simImageButton;
-        }
-    
         public SimImageButton() {
             var styles = Main.jsonData.getClassStyleMap().get(ImageButton.class);
             for (var style : styles) {
@@ -1656,27 +1929,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimImageTextButton duplicate() {
-            var simImageTextButton = new SimImageTextButton();
-            
-            simImageTextButton.parent = parent;
-            simImageTextButton.name = name;
-            simImageTextButton.text = text;
-            simImageTextButton.style = style;
-            simImageTextButton.checked = checked;
-            simImageTextButton.disabled = disabled;
-            simImageTextButton.color = color;
-            simImageTextButton.padLeft = padLeft;
-            simImageTextButton.padRight = padRight;
-            simImageTextButton.padTop = padTop;
-            simImageTextButton.padBottom = padBottom;
-            simImageTextButton.touchable = touchable;
-            simImageTextButton.visible = visible;
-            
-            return simImageTextButton;
-        }
-    
         public SimImageTextButton() {
             var styles = Main.jsonData.getClassStyleMap().get(ImageTextButton.class);
             for (var style : styles) {
@@ -1736,25 +1988,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimLabel duplicate() {
-            var simLabel = new SimLabel();
-            
-            simLabel.parent = parent;
-            simLabel.name = name;
-            simLabel.style = style;
-            simLabel.text = text;
-            simLabel.textAlignment = textAlignment;
-            simLabel.ellipsis = ellipsis;
-            simLabel.ellipsisString = ellipsisString;
-            simLabel.wrap = wrap;
-            simLabel.color = color;
-            simLabel.touchable = touchable;
-            simLabel.visible = visible;
-            
-            return simLabel;
-        }
-    
         public SimLabel() {
             var styles = Main.jsonData.getClassStyleMap().get(Label.class);
             for (var style : styles) {
@@ -1811,24 +2044,14 @@ public class DialogSceneComposerModel {
     public static class SimList extends SimActor implements SimNamed, SimTouchable, SimVisible {
         public String name;
         public StyleData style;
+        /**
+         * Shared with duplicates of this actor. Assign a new array instead of
+         * modifying it in place.
+         */
         public Array<String> list = new Array<>();
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimList duplicate() {
-            var simList = new SimList();
-            
-            simList.parent = parent;
-            simList.name = name;
-            simList.style = style;
-            simList.list.addAll(list);
-            simList.touchable = touchable;
-            simList.visible = visible;
-            
-            return simList;
-        }
-    
         public SimList() {
             var styles = Main.jsonData.getClassStyleMap().get(List.class);
             for (var style : styles) {
@@ -1859,7 +2082,7 @@ public class DialogSceneComposerModel {
                     }
                 }
             }
-            list.clear();
+            list = new Array<>();
         }
     
         @Override
@@ -1894,29 +2117,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimProgressBar duplicate() {
-            var simProgressBar = new SimProgressBar();
-            
-            simProgressBar.parent = parent;
-            simProgressBar.name = name;
-            simProgressBar.style = style;
-            simProgressBar.disabled = disabled;
-            simProgressBar.value = value;
-            simProgressBar.minimum = minimum;
-            simProgressBar.maximum = maximum;
-            simProgressBar.increment = increment;
-            simProgressBar.vertical = vertical;
-            simProgressBar.animationDuration = animationDuration;
-            simProgressBar.animateInterpolation = animateInterpolation;
-            simProgressBar.round = round;
-            simProgressBar.visualInterpolation = visualInterpolation;
-            simProgressBar.touchable = touchable;
-            simProgressBar.visible = visible;
-            
-            return simProgressBar;
-        }
-    
         public SimProgressBar() {
             var styles = Main.jsonData.getClassStyleMap().get(ProgressBar.class);
             for (var style : styles) {
@@ -1980,6 +2180,10 @@ public class DialogSceneComposerModel {
         public StyleData style;
         public boolean disabled;
         public int maxListCount;
+        /**
+         * Shared with duplicates of this actor. Assign a new array instead of
+         * modifying it in place.
+         */
         public Array<String> list = new Array<>();
         public int alignment = Align.center;
         public int selected;
@@ -1987,25 +2191,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimSelectBox duplicate() {
-            var simSelectBox = new SimSelectBox();
-            
-            simSelectBox.parent = parent;
-            simSelectBox.name = name;
-            simSelectBox.style = style;
-            simSelectBox.disabled = disabled;
-            simSelectBox.maxListCount = maxListCount;
-            simSelectBox.list.addAll(list);
-            simSelectBox.alignment = alignment;
-            simSelectBox.selected = selected;
-            simSelectBox.scrollingDisabled = scrollingDisabled;
-            simSelectBox.touchable = touchable;
-            simSelectBox.visible = visible;
-            
-            return simSelectBox;
-        }
-    
         public SimSelectBox() {
             var styles = Main.jsonData.getClassStyleMap().get(SelectBox.class);
             for (var style : styles) {
@@ -2027,7 +2212,7 @@ public class DialogSceneComposerModel {
             style = null;
             disabled = false;
             maxListCount = 0;
-            list.clear();
+            list = new Array<>();
             alignment = Align.center;
             selected = 0;
             scrollingDisabled = false;
@@ -2076,29 +2261,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimSlider duplicate() {
-            var simSlider = new SimSlider();
-            
-            simSlider.parent = parent;
-            simSlider.name = name;
-            simSlider.style = style;
-            simSlider.disabled = disabled;
-            simSlider.value = value;
-            simSlider.minimum = minimum;
-            simSlider.maximum = maximum;
-            simSlider.increment = increment;
-            simSlider.vertical = vertical;
-            simSlider.animationDuration = animationDuration;
-            simSlider.animateInterpolation = animateInterpolation;
-            simSlider.round = round;
-            simSlider.visualInterpolation = visualInterpolation;
-            simSlider.touchable = touchable;
-            simSlider.visible = visible;
-            
-            return simSlider;
-        }
-    
         public SimSlider() {
             var styles = Main.jsonData.getClassStyleMap().get(Slider.class);
             for (var style : styles) {
@@ -2171,27 +2333,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimTextButton duplicate() {
-            var sim = new SimTextButton();
-            
-            sim.parent = parent;
-            sim.name = name;
-            sim.text = text;
-            sim.style = style;
-            sim.checked = checked;
-            sim.disabled = disabled;
-            sim.color = color;
-            sim.padLeft = padLeft;
-            sim.padRight = padRight;
-            sim.padTop = padTop;
-            sim.padBottom = padBottom;
-            sim.touchable = touchable;
-            sim.visible = visible;
-            
-            return sim;
-        }
-    
         public SimTextButton() {
             var styles = Main.jsonData.getClassStyleMap().get(TextButton.class);
             for (var style : styles) {
@@ -2264,31 +2405,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimTextField duplicate() {
-            var simTextField = new SimTextField();
-            
-            simTextField.parent = parent;
-            simTextField.name = name;
-            simTextField.style = style;
-            simTextField.text = text;
-            simTextField.passwordCharacter = passwordCharacter;
-            simTextField.passwordMode = passwordMode;
-            simTextField.alignment = alignment;
-            simTextField.disabled = disabled;
-            simTextField.cursorPosition = cursorPosition;
-            simTextField.selectionStart = selectionStart;
-            simTextField.selectionEnd = selectionEnd;
-            simTextField.selectAll = selectAll;
-            simTextField.focusTraversal = focusTraversal;
-            simTextField.maxLength = maxLength;
-            simTextField.messageText = messageText;
-            simTextField.touchable = touchable;
-            simTextField.visible = visible;
-            
-            return simTextField;
-        }
-    
         public SimTextField() {
             var styles = Main.jsonData.getClassStyleMap().get(TextField.class);
             for (var style : styles) {
@@ -2368,32 +2484,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimTextArea duplicate() {
-            var simTextArea = new SimTextArea();
-            
-            simTextArea.parent = parent;
-            simTextArea.name = name;
-            simTextArea.style = style;
-            simTextArea.text = text;
-            simTextArea.passwordCharacter = passwordCharacter;
-            simTextArea.passwordMode = passwordMode;
-            simTextArea.alignment = alignment;
-            simTextArea.disabled = disabled;
-            simTextArea.cursorPosition = cursorPosition;
-            simTextArea.selectionStart = selectionStart;
-            simTextArea.selectionEnd = selectionEnd;
-            simTextArea.selectAll = selectAll;
-            simTextArea.focusTraversal = focusTraversal;
-            simTextArea.maxLength = maxLength;
-            simTextArea.messageText = messageText;
-            simTextArea.preferredRows = preferredRows;
-            simTextArea.touchable = touchable;
-            simTextArea.visible = visible;
-            
-            return simTextArea;
-        }
-    
         public SimTextArea() {
             var styles = Main.jsonData.getClassStyleMap().get(TextField.class);
             for (var style : styles) {
@@ -2463,20 +2553,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimTouchPad duplicate() {
-            var simTouchPad = new SimTouchPad();
-            
-            simTouchPad.parent = parent;
-            simTouchPad.style = style;
-            simTouchPad.deadZone = deadZone;
-            simTouchPad.resetOnTouchUp = resetOnTouchUp;
-            simTouchPad.touchable = touchable;
-            simTouchPad.visible = visible;
-            
-            return simTouchPad;
-        }
-    
         public SimTouchPad() {
             var styles = Main.jsonData.getClassStyleMap().get(Touchpad.class);
             for (var style : styles) {
@@ -2546,35 +2622,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimContainer duplicate() {
-            var simContainer = new SimContainer();
-            simContainer.name = name;
-            simContainer.alignment = alignment;
-            simContainer.background = background;
-            simContainer.fillX = fillX;
-            simContainer.fillY = fillY;
-            simContainer.minWidth = minWidth;
-            simContainer.minHeight = minHeight;
-            simContainer.maxWidth = maxWidth;
-            simContainer.maxHeight = maxHeight;
-            simContainer.preferredWidth = preferredWidth;
-            simContainer.preferredHeight = preferredHeight;
-            simContainer.padLeft = padLeft;
-            simContainer.padRight = padRight;
-            simContainer.padTop = padTop;
-            simContainer.padBottom = padBottom;
-            simContainer.touchable = touchable;
-            simContainer.visible = visible;
-            
-            if (child != null) {
-                simContainer.child = child.duplicate();
-                simContainer.child.parent = simContainer;
-            }
-            
-            return simContainer;
-        }
-    
         public SimContainer() {
         
         }
@@ -2644,35 +2691,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimHorizontalGroup duplicate() {
-            var simHorizontalGroup = new SimHorizontalGroup();
-            
-            simHorizontalGroup.parent = parent;
-            simHorizontalGroup.name = name;
-            simHorizontalGroup.alignment = alignment;
-            simHorizontalGroup.expand = expand;
-            simHorizontalGroup.fill = fill;
-            simHorizontalGroup.padLeft = padLeft;
-            simHorizontalGroup.padRight = padRight;
-            simHorizontalGroup.padTop = padTop;
-            simHorizontalGroup.padBottom = padBottom;
-            simHorizontalGroup.reverse = reverse;
-            simHorizontalGroup.rowAlignment =  rowAlignment;
-            simHorizontalGroup.space = space;
-            simHorizontalGroup.wrap = wrap;
-            simHorizontalGroup.wrapSpace = wrapSpace;
-            simHorizontalGroup.touchable = touchable;
-            simHorizontalGroup.visible = visible;
-            
-            for (var actor : children) {
-                simHorizontalGroup.children.add(actor.duplicate());
-                simHorizontalGroup.children.peek().parent = simHorizontalGroup;
-            }
-            
-            return simHorizontalGroup;
-        }
-    
         public SimHorizontalGroup() {
         }
     
@@ -2758,45 +2776,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimScrollPane duplicate() {
-            var simScrollPane = new SimScrollPane();
-            
-            simScrollPane.parent = parent;
-            simScrollPane.name = name;
-            simScrollPane.style = style;
-            simScrollPane.fadeScrollBars = fadeScrollBars;
-            
-            if (child != null) {
-                simScrollPane.child = child.duplicate();
-                simScrollPane.child.parent = simScrollPane;
-            }
-            
-            simScrollPane.clamp = clamp;
-            simScrollPane.flickScroll = flickScroll;
-            simScrollPane.flingTime = flingTime;
-            simScrollPane.forceScrollX = forceScrollX;
-            simScrollPane.forceScrollY = forceScrollY;
-            simScrollPane.overScrollX = overScrollX;
-            simScrollPane.overScrollY = overScrollY;
-            simScrollPane.overScrollDistance = overScrollDistance;
-            simScrollPane.overScrollSpeedMin = overScrollSpeedMin;
-            simScrollPane.overScrollSpeedMax = overScrollSpeedMax;
-            simScrollPane.scrollBarBottom = scrollBarBottom;
-            simScrollPane.scrollBarRight = scrollBarRight;
-            simScrollPane.scrollBarsOnTop = scrollBarsOnTop;
-            simScrollPane.scrollBarsVisible = scrollBarsVisible;
-            simScrollPane.scrollBarTouch = scrollBarTouch;
-            simScrollPane.scrollingDisabledX = scrollingDisabledX;
-            simScrollPane.scrollingDisabledY = scrollingDisabledY;
-            simScrollPane.smoothScrolling = smoothScrolling;
-            simScrollPane.variableSizeKnobs = variableSizeKnobs;
-            simScrollPane.touchable = touchable;
-            simScrollPane.visible = visible;
-            
-            return simScrollPane;
-        }
-    
         public SimScrollPane() {
             var styles = Main.jsonData.getClassStyleMap().get(ScrollPane.class);
             for (var style : styles) {
@@ -2877,22 +2856,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimStack duplicate() {
-            var simStack = new SimStack();
-            
-            simStack.parent = parent;
-            simStack.touchable = touchable;
-            simStack.visible = visible;
-            
-            for (var actor : children) {
-                simStack.children.add(actor.duplicate());
-                simStack.children.peek().parent = simStack;
-            }
-            
-            return simStack;
-        }
-    
         public SimStack() {
         
         }
@@ -2953,31 +2916,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimSplitPane duplicate() {
-            var simSplitPane = new SimSplitPane();
-            
-            simSplitPane.parent = parent;
-            simSplitPane.name = name;
-            simSplitPane.style = style;
-            if (childFirst != null) {
-                simSplitPane.childFirst = childFirst;
-                simSplitPane.childFirst.parent = simSplitPane;
-            }
-            if (childSecond != null) {
-                simSplitPane.childSecond = childSecond.duplicate();
-                simSplitPane.childSecond.parent = simSplitPane;
-            }
-            simSplitPane.vertical = vertical;
-            simSplitPane.split = split;
-            simSplitPane.splitMin = splitMin;
-            simSplitPane.splitMax = splitMax;
-            simSplitPane.touchable = touchable;
-            simSplitPane.visible = visible;
-            
-            return simSplitPane;
-        }
-    
         public SimSplitPane() {
             var styles = Main.jsonData.getClassStyleMap().get(SplitPane.class);
             for (var style : styles) {
@@ -3064,28 +3002,6 @@ public class DialogSceneComposerModel {
         public DrawableData icon;
         public boolean selectable = true;
     
-        @Override
-        public SimNode duplicate() {
-            var simNode = new SimNode();
-            
-            simNode.parent = parent;
-            if (actor != null) {
-                simNode.actor = actor.duplicate();
-                simNode.actor.parent = simNode;
-            }
-            
-            for (var node : nodes) {
-                simNode.nodes.add(node.duplicate());
-                simNode.nodes.peek().parent = simNode;
-            }
-            
-            simNode.expanded = expanded;
-            simNode.icon = icon;
-            simNode.selectable = selectable;
-            
-            return simNode;
-        }
-    
         public SimNode() {
         }
     
@@ -3136,31 +3052,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimTree duplicate() {
-            var simTree = new SimTree();
-            
-            simTree.parent = parent;
-            simTree.name = name;
-            simTree.style = style;
-            
-            for (var node : children) {
-                simTree.children.add(node.duplicate());
-                simTree.children.peek().parent = simTree;
-            }
-            
-            simTree.padLeft = padLeft;
-            simTree.padRight = padRight;
-            simTree.iconSpaceLeft = iconSpaceLeft;
-            simTree.iconSpaceRight = iconSpaceRight;
-            simTree.indentSpacing = indentSpacing;
-            simTree.ySpacing = ySpacing;
-            simTree.touchable = touchable;
-            simTree.visible = visible;
-            
-            return simTree;
-        }
-    
         public SimTree() {
             var styles = Main.jsonData.getClassStyleMap().get(Tree.class);
             for (var style : styles) {
@@ -3249,35 +3140,6 @@ public class DialogSceneComposerModel {
         public Touchable touchable = Touchable.enabled;
         public boolean visible = true;
     
-        @Override
-        public SimVerticalGroup duplicate() {
-            var simVerticalGroup = new SimVerticalGroup();
-            
-            simVerticalGroup.parent = parent;
-            simVerticalGroup.name = name;
-            simVerticalGroup.alignment = alignment;
-            simVerticalGroup.expand = expand;
-            simVerticalGroup.fill = fill;
-            simVerticalGroup.padLeft = padLeft;
-            simVerticalGroup.padRight = padRight;
-            simVerticalGroup.padTop = padTop;
-            simVerticalGroup.padBottom = padBottom;
-            simVerticalGroup.reverse = reverse;
-            simVerticalGroup.columnAlignment = columnAlignment;
-            simVerticalGroup.space = space;
-            simVerticalGroup.wrap = wrap;
-            simVerticalGroup.wrapSpace = wrapSpace;
-            simVerticalGroup.touchable = touchable;
-            simVerticalGroup.visible = visible;
-            
-            for (var actor : children) {
-                simVerticalGroup.children.add(actor.duplicate());
-                simVerticalGroup.children.peek().parent = simVerticalGroup;
-            }
-            
-            return simVerticalGroup;
-        }
-    
         public SimVerticalGroup() {
         
         }
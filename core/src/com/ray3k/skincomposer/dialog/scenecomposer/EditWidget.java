@@ -9,12 +9,13 @@ import com.badlogic.gdx.scenes.scene2d.ui.Cell;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Pool.Poolable;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimActor;
 
 import static com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer.dialog;
 import static com.ray3k.skincomposer.Main.*;
 
-public class EditWidget extends Button {
+public class EditWidget extends Button implements Poolable {
     private Actor followActor;
     private Cell cell;
     private static final Vector2 temp = new Vector2();
@@ -39,6 +40,8 @@ public class EditWidget extends Button {
         addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
+                //the preview update returns this widget to its pool and clears the target
+                var simActor = EditWidget.this.simActor;
                 if (simActor != null) {
                     dialog.simActor = simActor;
                     dialog.populateProperties();
@@ -78,6 +81,15 @@ public class EditWidget extends Button {
         this.simActor = simActor;
     }
     
+    @Override
+    public void reset() {
+        followActor = null;
+        cell = null;
+        simActor = null;
+        setFillParent(false);
+        setChecked(false);
+    }
+    
     @Override
     public void layout() {
         super.layout();
@@ -1,5 +1,6 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimActor;
@@ -39,6 +40,7 @@ public class ActorDeleteUndoable implements SceneComposerUndoable {
         } else if (parent instanceof SimMultipleChildren) {
             ((SimMultipleChildren) parent).removeChild(actor);
         }
+        actor.releasePreview();
         
         if (dialog.simActor != parent) {
             dialog.simActor = parent;
@@ -48,6 +50,11 @@ public class ActorDeleteUndoable implements SceneComposerUndoable {
         dialog.model.updatePreview();
     }
     
+    @Override
+    public long getRetainedSize() {
+        return UndoableManager.UNDOABLE_SIZE + DialogSceneComposerModel.sizeOf(actor);
+    }
+    
     @Override
     public String getRedoString() {
         return "Redo \"Delete Actor\"";
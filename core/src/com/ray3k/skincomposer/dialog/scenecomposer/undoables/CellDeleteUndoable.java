@@ -1,6 +1,7 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
 import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
 
@@ -58,6 +59,7 @@ public class CellDeleteUndoable implements SceneComposerUndoable {
     @Override
     public void redo() {
         table.cells.removeValue(cell, true);
+        cell.releasePreview();
     
         if (verticalAdjust) {
             for (var currentCell : verticalAdjustCells) {
@@ -78,6 +80,11 @@ public class CellDeleteUndoable implements SceneComposerUndoable {
         dialog.model.updatePreview();
     }
     
+    @Override
+    public long getRetainedSize() {
+        return UndoableManager.UNDOABLE_SIZE + DialogSceneComposerModel.sizeOf(cell);
+    }
+    
     @Override
     public String getRedoString() {
         return "Redo \"Delete Cell\"";
@@ -1,5 +1,6 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
 
@@ -15,7 +16,7 @@ public class CellDuplicateCellAboveUndoable implements SceneComposerUndoable {
         cell = (DialogSceneComposerModel.SimCell) dialog.simActor;
         table = (DialogSceneComposerModel.SimTable) cell.parent;
         
-        newCell = cell.duplicate();
+        newCell = (DialogSceneComposerModel.SimCell) cell.duplicate();
         newCell.column = Math.min(cell.column, table.getColumns(cell.row - 1));
         newCell.row = cell.row - 1;
         newCell.parent = table;
@@ -59,6 +60,11 @@ public class CellDuplicateCellAboveUndoable implements SceneComposerUndoable {
         dialog.model.updatePreview();
     }
     
+    @Override
+    public long getRetainedSize() {
+        return UndoableManager.UNDOABLE_SIZE + DialogSceneComposerModel.sizeOf(newCell);
+    }
+    
     @Override
     public String getRedoString() {
         return "Redo \"Duplicate Cell to Row Above\"";
@@ -1,5 +1,6 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerEvents;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
@@ -90,6 +91,7 @@ public class ContainerSetWidgetUndoable implements SceneComposerUndoable {
     @Override
     public void undo() {
         container.child = previousWidget;
+        newWidget.releasePreview();
         
         if (dialog.simActor != container) {
             dialog.simActor = container;
@@ -102,6 +104,7 @@ public class ContainerSetWidgetUndoable implements SceneComposerUndoable {
     @Override
     public void redo() {
         container.child = newWidget;
+        if (previousWidget != null) previousWidget.releasePreview();
         
         if (dialog.simActor != container.child) {
             dialog.simActor = container.child;
@@ -111,6 +114,11 @@ public class ContainerSetWidgetUndoable implements SceneComposerUndoable {
         dialog.model.updatePreview();
     }
     
+    @Override
+    public long getRetainedSize() {
+        return UndoableManager.UNDOABLE_SIZE + DialogSceneComposerModel.sizeOf(previousWidget) + DialogSceneComposerModel.sizeOf(newWidget);
+    }
+    
     @Override
     public String getRedoString() {
         return "Redo \"Set Widget for Container\"";
@@ -17,13 +17,12 @@ public class ListListUndoable implements SceneComposerUndoable {
         if (textList != null && textList.equals("")) {
             this.textList = null;
         }
-        previousTextList = new Array<>(list.list);
+        previousTextList = list.list;
     }
     
     @Override
     public void undo() {
-        list.list.clear();
-        list.list.addAll(previousTextList);
+        list.list = previousTextList;
     
         if (dialog.simActor != list) {
             dialog.simActor = list;
@@ -35,8 +34,7 @@ public class ListListUndoable implements SceneComposerUndoable {
     
     @Override
     public void redo() {
-        list.list.clear();
-        list.list.addAll(textList);
+        list.list = textList;
     
         if (dialog.simActor != list) {
             dialog.simActor = list;
@@ -18,15 +18,14 @@ public class ListResetUndoable implements SceneComposerUndoable {
         
         previousName = list.name;
         previousStyle = list.style;
-        previousList = new Array<>(list.list);
+        previousList = list.list;
     }
     
     @Override
     public void undo() {
         list.name = previousName;
         list.style = previousStyle;
-        list.list.clear();
-        list.list.addAll(previousList);
+        list.list = previousList;
     
         if (dialog.simActor != list) {
             dialog.simActor = list;
@@ -1,6 +1,7 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
 import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.data.DrawableData;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
@@ -53,6 +54,15 @@ public class NodeResetUndoable implements SceneComposerUndoable {
         dialog.model.updatePreview();
     }
     
+    @Override
+    public long getRetainedSize() {
+        long size = UndoableManager.UNDOABLE_SIZE + DialogSceneComposerModel.sizeOf(previousActor);
+        for (var previousNode : previousNodes) {
+            size += DialogSceneComposerModel.sizeOf(previousNode);
+        }
+        return size;
+    }
+    
     @Override
     public String getRedoString() {
         return "Redo \"Reset Node\"";
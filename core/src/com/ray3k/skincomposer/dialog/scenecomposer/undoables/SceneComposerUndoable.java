@@ -1,8 +1,20 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
+import com.ray3k.skincomposer.UndoableManager;
+
 public interface SceneComposerUndoable {
     public void undo();
     public void redo();
     public String getRedoString();
     public String getUndoString();
+    
+    /**
+     * Returns a rough estimate of the memory in bytes kept alive by this
+     * undoable. Undoables that keep SimActor subtrees should include them with
+     * DialogSceneComposerModel.sizeOf().
+     * @return 
+     */
+    public default long getRetainedSize() {
+        return UndoableManager.UNDOABLE_SIZE;
+    }
 }
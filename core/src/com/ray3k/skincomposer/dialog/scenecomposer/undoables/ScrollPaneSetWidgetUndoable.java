@@ -1,5 +1,6 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerEvents;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
@@ -90,6 +91,7 @@ public class ScrollPaneSetWidgetUndoable implements SceneComposerUndoable {
     @Override
     public void undo() {
         scrollPane.child = previousWidget;
+        newWidget.releasePreview();
         
         if (dialog.simActor != scrollPane) {
             dialog.simActor = scrollPane;
@@ -102,6 +104,7 @@ public class ScrollPaneSetWidgetUndoable implements SceneComposerUndoable {
     @Override
     public void redo() {
         scrollPane.child = newWidget;
+        if (previousWidget != null) previousWidget.releasePreview();
         
         if (dialog.simActor != scrollPane.child) {
             dialog.simActor = scrollPane.child;
@@ -111,6 +114,11 @@ public class ScrollPaneSetWidgetUndoable implements SceneComposerUndoable {
         dialog.model.updatePreview();
     }
     
+    @Override
+    public long getRetainedSize() {
+        return UndoableManager.UNDOABLE_SIZE + DialogSceneComposerModel.sizeOf(previousWidget) + DialogSceneComposerModel.sizeOf(newWidget);
+    }
+    
     @Override
     public String getRedoString() {
         return "Redo \"Set Widget for ScrollPane\"";
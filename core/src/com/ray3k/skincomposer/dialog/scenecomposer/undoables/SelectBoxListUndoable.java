@@ -17,13 +17,12 @@ public class SelectBoxListUndoable implements SceneComposerUndoable {
         if (textList != null && textList.equals("")) {
             this.textList = null;
         }
-        previousTextList = new Array<>(selectBox.list);
+        previousTextList = selectBox.list;
     }
     
     @Override
     public void undo() {
-        selectBox.list.clear();
-        selectBox.list.addAll(previousTextList);
+        selectBox.list = previousTextList;
     
         if (dialog.simActor != selectBox) {
             dialog.simActor = selectBox;
@@ -35,8 +34,7 @@ public class SelectBoxListUndoable implements SceneComposerUndoable {
     
     @Override
     public void redo() {
-        selectBox.list.clear();
-        selectBox.list.addAll(textList);
+        selectBox.list = textList;
     
         if (dialog.simActor != selectBox) {
             dialog.simActor = selectBox;
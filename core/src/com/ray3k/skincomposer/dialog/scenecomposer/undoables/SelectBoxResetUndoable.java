@@ -24,7 +24,7 @@ public class SelectBoxResetUndoable implements SceneComposerUndoable {
         previousStyle = selectBox.style;
         previousDisabled = selectBox.disabled;
         previousMaxListCount = selectBox.maxListCount;
-        previousList = new Array<>(selectBox.list);
+        previousList = selectBox.list;
         previousAlignment = selectBox.alignment;
         previousSelected = selectBox.selected;
         previousScrollingDisabled = selectBox.scrollingDisabled;
@@ -36,8 +36,7 @@ public class SelectBoxResetUndoable implements SceneComposerUndoable {
         selectBox.style = previousStyle;
         selectBox.disabled = previousDisabled;
         selectBox.maxListCount = previousMaxListCount;
-        selectBox.list.clear();
-        selectBox.list.addAll(previousList);
+        selectBox.list = previousList;
         selectBox.alignment = previousAlignment;
         selectBox.selected = previousSelected;
         selectBox.scrollingDisabled = previousScrollingDisabled;
@@ -1,6 +1,7 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
 import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
 
@@ -43,6 +44,15 @@ public class StackResetUndoable implements SceneComposerUndoable {
         dialog.model.updatePreview();
     }
     
+    @Override
+    public long getRetainedSize() {
+        long size = UndoableManager.UNDOABLE_SIZE;
+        for (var previousChild : previousChildren) {
+            size += DialogSceneComposerModel.sizeOf(previousChild);
+        }
+        return size;
+    }
+    
     @Override
     public String getRedoString() {
         return "Redo \"Reset Stack\"";
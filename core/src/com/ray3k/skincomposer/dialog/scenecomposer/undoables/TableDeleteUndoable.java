@@ -1,5 +1,6 @@
 package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
 
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimRootGroup;
@@ -38,6 +39,7 @@ public class TableDeleteUndoable implements SceneComposerUndoable {
         } else if (parent instanceof SimRootGroup) {
             ((SimRootGroup) parent).children.removeValue(table, true);
         }
+        table.releasePreview();
         
         if (dialog.simActor != parent) {
             dialog.simActor = parent;
@@ -47,6 +49,11 @@ public class TableDeleteUndoable implements SceneComposerUndoable {
         dialog.model.updatePreview();
     }
     
+    @Override
+    public long getRetainedSize() {
+        return UndoableManager.UNDOABLE_SIZE + DialogSceneComposerModel.sizeOf(table);
+    }
+    
     @Override
     public String getRedoString() {
         return "Redo \"Delete Table\"";
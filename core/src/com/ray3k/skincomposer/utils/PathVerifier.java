@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Checks files for existence by listing each parent directory once and
+ * looking up names in memory. This avoids a separate file system query for
+ * every resource of a project, which is slow on network drives. The listings
+ * are cached for the life of the instance, so create a new one for each
+ * verification pass.
+ * @author Raymond
+ */
+public class PathVerifier {
+    private final ObjectMap<String, ObjectSet<String>> directories;
+
+    public PathVerifier() {
+        directories = new ObjectMap<>();
+    }
+    
+    public boolean exists(FileHandle file) {
+        if (file == null) return false;
+        
+        var absolute = file.file().getAbsoluteFile();
+        var parent = absolute.getParentFile();
+        if (parent == null) return file.exists();
+        
+        var names = list(parent);
+        
+        //listings are case sensitive while some file systems are not
+        return names.contains(absolute.getName()) || names.size > 0 && file.exists();
+    }
+    
+    private ObjectSet<String> list(File directory) {
+        var key = directory.getPath();
+        var names = directories.get(key);
+        if (names == null) {
+            names = new ObjectSet<>();
+            var list = directory.list();
+            if (list != null) names.addAll(list);
+            directories.put(key, names);
+        }
+        return names;
+    }
+    
+    /**
+     * Indexes every file in the folder and its subfolders by file name. If a
+     * name occurs more than once, the file closest to the folder is kept.
+     * @param folder
+     * @return A map of file names to files.
+     */
+    public static ObjectMap<String, FileHandle> indexFolder(FileHandle folder) {
+        var index = new ObjectMap<String, FileHandle>();
+        var depths = new ObjectMap<String, Integer>();
+        var root = folder.file().toPath();
+        
+        try (var stream = Files.walk(root)) {
+            stream.filter(Files::isRegularFile).forEach(path -> {
+                var name = path.getFileName().toString();
+                var depth = path.getNameCount();
+                var existing = depths.get(name);
+                if (existing == null || depth < existing) {
+                    index.put(name, new FileHandle(path.toFile()));
+                    depths.put(name, depth);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            Gdx.app.error(PathVerifier.class.getName(), "Error indexing folder: " + folder.path(), e);
+        }
+        
+        return index;
+    }
+}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.utils;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A JsonWriter that indents its output as it is written, producing the same
+ * layout as {@link com.badlogic.gdx.utils.Json#prettyPrint(String)} without
+ * building the whole document in memory first. Only the values of an array
+ * are held back until it is known whether the array contains nothing but
+ * numbers, which are printed on a single line.
+ */
+public class PrettyJsonStreamWriter extends JsonWriter {
+    private final Writer writer;
+    private final Array<Container> stack = new Array<>();
+    private OutputType outputType = OutputType.json;
+    private String name;
+    
+    public PrettyJsonStreamWriter(Writer writer) {
+        super(writer);
+        this.writer = writer;
+    }
+    
+    @Override
+    public void setOutputType(OutputType outputType) {
+        super.setOutputType(outputType);
+        this.outputType = outputType;
+    }
+    
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (stack.size == 0 || stack.peek().array) throw new IllegalStateException("Current item must be an object.");
+        this.name = name;
+        return this;
+    }
+    
+    @Override
+    public JsonWriter object() throws IOException {
+        beginChild();
+        writer.write('{');
+        stack.add(new Container(false));
+        return this;
+    }
+    
+    @Override
+    public JsonWriter array() throws IOException {
+        beginChild();
+        writer.write('[');
+        stack.add(new Container(true));
+        return this;
+    }
+    
+    @Override
+    public JsonWriter object(String name) throws IOException {
+        return name(name).object();
+    }
+    
+    @Override
+    public JsonWriter array(String name) throws IOException {
+        return name(name).array();
+    }
+    
+    @Override
+    public JsonWriter value(Object value) throws IOException {
+        if (value instanceof Number) {
+            var number = (Number) value;
+            var longValue = number.longValue();
+            if (number.doubleValue() == longValue) value = longValue;
+        }
+        
+        //numbers are held back while the array may still be printed on one line
+        if (stack.size > 0) {
+            var container = stack.peek();
+            if (container.array && !container.multiLine && value instanceof Number) {
+                container.numbers.add(outputType.quoteValue(value));
+                return this;
+            }
+        }
+        
+        beginChild();
+        writer.write(outputType.quoteValue(value));
+        return this;
+    }
+    
+    @Override
+    public JsonWriter set(String name, Object value) throws IOException {
+        return name(name).value(value);
+    }
+    
+    @Override
+    public JsonWriter json(String json) throws IOException {
+        writeJsonValue(new JsonReader().parse(json));
+        return this;
+    }
+    
+    @Override
+    public JsonWriter json(String name, String json) throws IOException {
+        return name(name).json(json);
+    }
+    
+    private void writeJsonValue(JsonValue jsonValue) throws IOException {
+        if (jsonValue.isObject() || jsonValue.isArray()) {
+            if (jsonValue.isObject()) object();
+            else array();
+            
+            for (var child : jsonValue) {
+                if (child.name != null) name(child.name);
+                writeJsonValue(child);
+            }
+            pop();
+        } else if (jsonValue.isNull()) {
+            value(null);
+        } else if (jsonValue.isLong()) {
+            value(jsonValue.asLong());
+        } else if (jsonValue.isDouble()) {
+            value(jsonValue.asDouble());
+        } else if (jsonValue.isBoolean()) {
+            value(jsonValue.asBoolean());
+        } else {
+            value(jsonValue.asString());
+        }
+    }
+    
+    @Override
+    public JsonWriter pop() throws IOException {
+        if (name != null) throw new IllegalStateException("Expected an object, array, or value since a name was set.");
+        var container = stack.pop();
+        
+        if (container.array && !container.multiLine) {
+            if (container.numbers.size > 0) {
+                writer.write(' ');
+                for (int i = 0; i < container.numbers.size; i++) {
+                    if (i > 0) writer.write(", ");
+                    writer.write(container.numbers.get(i));
+                }
+                writer.write(' ');
+            }
+        } else if (container.count > 0) {
+            writer.write('\n');
+            indent(stack.size - 1);
+        }
+        
+        writer.write(container.array ? ']' : '}');
+        return this;
+    }
+    
+    /**
+     * Writes the separator, indentation and name that precede a value,
+     * object, or array in the current container.
+     * @throws IOException 
+     */
+    private void beginChild() throws IOException {
+        if (stack.size == 0) return;
+        var container = stack.peek();
+        
+        if (container.array) {
+            if (!container.multiLine) {
+                container.multiLine = true;
+                for (var number : container.numbers) {
+                    writeSeparator(container);
+                    writer.write(number);
+                }
+                container.numbers.clear();
+            }
+            writeSeparator(container);
+        } else {
+            if (name == null) throw new IllegalStateException("Name must be set.");
+            writeSeparator(container);
+            writer.write(outputType.quoteName(name));
+            writer.write(": ");
+            name = null;
+        }
+    }
+    
+    private void writeSeparator(Container container) throws IOException {
+        if (container.count > 0 && outputType != OutputType.minimal) writer.write(',');
+        writer.write('\n');
+        indent(stack.size - 1);
+        container.count++;
+    }
+    
+    private void indent(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            writer.write('\t');
+        }
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        while (stack.size > 0) pop();
+        writer.close();
+    }
+    
+    private static class Container {
+        final boolean array;
+        final Array<String> numbers = new Array<>();
+        boolean multiLine;
+        int count;
+        
+        Container(boolean array) {
+            this.array = array;
+            multiLine = !array;
+        }
+    }
+}
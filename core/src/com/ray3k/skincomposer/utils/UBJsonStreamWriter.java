@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.utils;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.UBJsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Adapts a UBJsonWriter to the JsonWriter API so that Json can serialize
+ * objects straight to binary UBJSON without building an intermediate String.
+ * Set it with {@link com.badlogic.gdx.utils.Json#setWriter(Writer)}.
+ */
+public class UBJsonStreamWriter extends JsonWriter {
+    private final UBJsonWriter ubJsonWriter;
+    
+    public UBJsonStreamWriter(OutputStream outputStream) {
+        super(Writer.nullWriter());
+        ubJsonWriter = new UBJsonWriter(outputStream);
+    }
+    
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        ubJsonWriter.name(name);
+        return this;
+    }
+    
+    @Override
+    public JsonWriter object() throws IOException {
+        ubJsonWriter.object();
+        return this;
+    }
+    
+    @Override
+    public JsonWriter array() throws IOException {
+        ubJsonWriter.array();
+        return this;
+    }
+    
+    @Override
+    public JsonWriter object(String name) throws IOException {
+        ubJsonWriter.object(name);
+        return this;
+    }
+    
+    @Override
+    public JsonWriter array(String name) throws IOException {
+        ubJsonWriter.array(name);
+        return this;
+    }
+    
+    @Override
+    public JsonWriter value(Object value) throws IOException {
+        if (value == null) {
+            ubJsonWriter.value();
+        } else if (value instanceof Boolean) {
+            ubJsonWriter.value((boolean) (Boolean) value);
+        } else if (value instanceof Number) {
+            ubJsonWriter.value(value);
+        } else {
+            ubJsonWriter.value(value.toString());
+        }
+        return this;
+    }
+    
+    @Override
+    public JsonWriter set(String name, Object value) throws IOException {
+        name(name);
+        return value(value);
+    }
+    
+    @Override
+    public JsonWriter json(String json) throws IOException {
+        ubJsonWriter.value(new JsonReader().parse(json));
+        return this;
+    }
+    
+    @Override
+    public JsonWriter json(String name, String json) throws IOException {
+        name(name);
+        return json(json);
+    }
+    
+    @Override
+    public JsonWriter pop() throws IOException {
+        ubJsonWriter.pop();
+        return this;
+    }
+    
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        throw new IOException("Raw text cannot be written to a UBJSON stream.");
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        ubJsonWriter.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        ubJsonWriter.close();
+    }
+}
@@ -45,13 +45,18 @@ import java.awt.*;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 public class Utils {
     public static String os;
@@ -120,6 +125,58 @@ public class Utils {
         return vector;
     }
     
+    /**
+     * Reads the split values of a nine patch image from its 1px border the same
+     * way the texture packer does. Doesn't require the GL context.
+     * @param file
+     * @return left, right, top and bottom widths or null if there are no splits
+     */
+    public static int[] ninePatchSplits(FileHandle file) {
+        Pixmap pixmap = new Pixmap(file);
+        try {
+            int startX = splitPoint(pixmap, 1, 0, true, true);
+            int endX = splitPoint(pixmap, startX, 0, false, true);
+            int startY = splitPoint(pixmap, 0, 1, true, false);
+            int endY = splitPoint(pixmap, 0, startY, false, false);
+            if (startX == 0 && endX == 0 && startY == 0 && endY == 0) return null;
+            
+            //coordinates include the border which is stripped from the region
+            if (startX != 0) {
+                startX--;
+                endX = pixmap.getWidth() - 2 - (endX - 1);
+            } else {
+                endX = pixmap.getWidth() - 2;
+            }
+            
+            if (startY != 0) {
+                startY--;
+                endY = pixmap.getHeight() - 2 - (endY - 1);
+            } else {
+                endY = pixmap.getHeight() - 2;
+            }
+            return new int[] {startX, endX, startY, endY};
+        } finally {
+            pixmap.dispose();
+        }
+    }
+    
+    private static int splitPoint(Pixmap pixmap, int startX, int startY, boolean startPoint, boolean xAxis) {
+        int next = xAxis ? startX : startY;
+        int end = xAxis ? pixmap.getWidth() : pixmap.getHeight();
+        int breakAlpha = startPoint ? 255 : 0;
+        
+        int x = startX;
+        int y = startY;
+        while (next != end) {
+            if (xAxis) x = next;
+            else y = next;
+            
+            if ((pixmap.getPixel(x, y) & 0xff) == breakAlpha) return next;
+            next++;
+        }
+        return 0;
+    }
+    
     /**
      * Does not dispose pixmap
      * @param pixmap
@@ -305,9 +362,52 @@ public class Utils {
     }
     
     /**
-     * Size of the buffer to read/write data
+     * Streams data to a temporary file next to the target and then moves it
+     * over the target. The target is never left partially written if the
+     * process dies mid-write.
+     * @param file
+     * @param streamWriter
+     * @throws IOException 
+     */
+    public static void writeAtomically(FileHandle file, StreamWriter streamWriter) throws IOException {
+        var target = file.file().toPath().toAbsolutePath();
+        var temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.createDirectories(target.getParent());
+        
+        try {
+            try (var outputStream = new BufferedOutputStream(Files.newOutputStream(temp), 65536)) {
+                streamWriter.write(outputStream);
+            }
+            
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            
+            moveAtomically(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Moves the source over the target in one step where the file system
+     * supports it.
+     * @param source
+     * @param target
+     * @throws IOException 
      */
-    private static final int BUFFER_SIZE = 4096;
+    public static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    public interface StreamWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+    
     /**
      * Extracts a zip file specified by the zipFilePath to a directory specified by
      * destDirectory (will be created if does not exists)
@@ -316,42 +416,28 @@ public class Utils {
      * @throws IOException
      */
     public static void unzip(FileHandle zipFile, FileHandle destDirectory) throws IOException {
-        destDirectory.mkdirs();
-        
-        InputStream is = zipFile.read();
-        ZipInputStream zis = new ZipInputStream(is);
+        var target = destDirectory.file().toPath().toAbsolutePath().normalize();
+        Files.createDirectories(target);
         
-        ZipEntry entry = zis.getNextEntry();
-        // iterates over entries in the zip file
-        while (entry != null) {
-            if (!entry.isDirectory()) {
-                // if the entry is a file, extracts it
-                extractFile(zis, destDirectory.child(entry.getName()));
-            } else {
-                // if the entry is a directory, make the directory
-                destDirectory.child(entry.getName()).mkdirs();
+        try (var fileSystem = FileSystems.newFileSystem(zipFile.file().toPath(), (ClassLoader) null)) {
+            var root = fileSystem.getPath("/");
+            try (var stream = Files.walk(root)) {
+                for (var iterator = stream.iterator(); iterator.hasNext();) {
+                    var entry = iterator.next();
+                    var destination = target.resolve(root.relativize(entry).toString()).normalize();
+                    if (!destination.startsWith(target)) {
+                        throw new IOException("Invalid zip entry: " + entry);
+                    }
+                    
+                    if (Files.isDirectory(entry)) {
+                        Files.createDirectories(destination);
+                    } else {
+                        Files.createDirectories(destination.getParent());
+                        Files.copy(entry, destination, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
             }
-            zis.closeEntry();
-            entry = zis.getNextEntry();
         }
-        is.close();
-        zis.close();
-    }
-    
-    /**
-     * Extracts a zip entry (file entry)
-     * @param zipIn
-     * @param filePath
-     * @throws IOException
-     */
-    private static void extractFile(ZipInputStream zipIn, FileHandle filePath) throws IOException {
-        BufferedOutputStream bos = new BufferedOutputStream(filePath.write(false));
-        byte[] bytesIn = new byte[BUFFER_SIZE];
-        int read = 0;
-        while ((read = zipIn.read(bytesIn)) != -1) {
-            bos.write(bytesIn, 0, read);
-        }
-        bos.close();
     }
     
     public static Pixmap textureRegionToPixmap(TextureRegion textureRegion) {
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+public class ExportManifestTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @BeforeClass
+    public static void setUpClass() {
+        //errors are logged through Gdx.app, which is not created in unit tests
+        Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(), new Class[] {Application.class}, (proxy, method, args) -> null);
+    }
+    
+    private FileHandle file(String name, String contents) {
+        var fileHandle = new FileHandle(new File(folder.getRoot(), name));
+        fileHandle.writeString(contents, false, "UTF-8");
+        return fileHandle;
+    }
+    
+    @Test
+    public void hashIsSha256OfContents() throws IOException {
+        var manifest = ExportManifest.load(file("skin.json", "{}"));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", manifest.hash(file("abc.txt", "abc")));
+        assertNull(manifest.hash(new FileHandle(new File(folder.getRoot(), "missing.txt"))));
+    }
+    
+    @Test
+    public void fingerprintTracksContentsAndExtras() throws IOException {
+        var manifest = ExportManifest.load(file("skin.json", "{}"));
+        var input = file("input.png", "first");
+        var files = new Array<FileHandle>();
+        files.add(input);
+        
+        var fingerprint = manifest.fingerprint(files, "extra");
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, manifest.fingerprint(files, "extra"));
+        assertNotEquals(fingerprint, manifest.fingerprint(files, "other"));
+        
+        input.writeString("second content", false, "UTF-8");
+        assertNotEquals(fingerprint, manifest.fingerprint(files, "extra"));
+        
+        files.add(new FileHandle(new File(folder.getRoot(), "missing.png")));
+        assertNull(manifest.fingerprint(files, "extra"));
+    }
+    
+    @Test
+    public void recordedStageIsCurrentAfterReload() throws IOException {
+        var target = file("skin.json", "{}");
+        var output = file("skin.atlas", "atlas");
+        var outputs = new Array<FileHandle>();
+        outputs.add(output);
+        
+        var manifest = ExportManifest.load(target);
+        manifest.record("atlas", "fingerprint", outputs);
+        manifest.save();
+        assertTrue(manifest.getFile().exists());
+        
+        var loaded = ExportManifest.load(target);
+        assertTrue(loaded.isCurrent("atlas", "fingerprint"));
+        assertFalse(loaded.isCurrent("atlas", "changed"));
+        assertFalse(loaded.isCurrent("fonts", "fingerprint"));
+        assertFalse(loaded.isCurrent("atlas", null));
+    }
+    
+    @Test
+    public void modifiedOutputIsNotCurrent() throws IOException {
+        var target = file("skin.json", "{}");
+        var output = file("skin.atlas", "atlas");
+        var outputs = new Array<FileHandle>();
+        outputs.add(output);
+        
+        var manifest = ExportManifest.load(target);
+        manifest.record("atlas", "fingerprint", outputs);
+        manifest.save();
+        
+        output.writeString("edited atlas", false, "UTF-8");
+        assertFalse(ExportManifest.load(target).isCurrent("atlas", "fingerprint"));
+    }
+    
+    @Test
+    public void invalidateForgetsStage() throws IOException {
+        var target = file("skin.json", "{}");
+        var outputs = new Array<FileHandle>();
+        outputs.add(file("skin.atlas", "atlas"));
+        
+        var manifest = ExportManifest.load(target);
+        manifest.record("atlas", "fingerprint", outputs);
+        assertTrue(manifest.isCurrent("atlas", "fingerprint"));
+        
+        manifest.invalidate("atlas");
+        assertFalse(manifest.isCurrent("atlas", "fingerprint"));
+    }
+    
+    @Test
+    public void corruptManifestIsIgnored() throws IOException {
+        var target = file("skin.json", "{}");
+        file("skin." + ExportManifest.EXTENSION, "{version: 1, hashes: [");
+        
+        var manifest = ExportManifest.load(target);
+        assertFalse(manifest.isCurrent("atlas", "fingerprint"));
+    }
+}
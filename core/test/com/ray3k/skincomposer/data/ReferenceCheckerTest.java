@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.ui.Button;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.skincomposer.data.ReferenceChecker.ResourceType;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+public class ReferenceCheckerTest {
+    private JsonData jsonData;
+    private AtlasData atlasData;
+    
+    @BeforeClass
+    public static void setUpClass() {
+        //cleared references are logged through Gdx.app, which is not created in unit tests
+        Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(), new Class[] {Application.class}, (proxy, method, args) -> null);
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        jsonData = new JsonData();
+        atlasData = new AtlasData();
+        jsonData.getColors().add(new ColorData("red", Color.RED));
+    }
+    
+    private StyleProperty styleProperty(Class clazz, String name) {
+        return jsonData.getClassStyleMap().get(clazz).first().properties.get(name);
+    }
+    
+    private CustomProperty customColorProperty(String value) {
+        var customClass = new CustomClass("com.example.Widget", "Widget");
+        var property = new CustomProperty("color", CustomProperty.PropertyType.COLOR);
+        property.setValue(value);
+        customClass.getStyle("default").getProperties().add(property);
+        jsonData.getCustomClasses().add(customClass);
+        return property;
+    }
+    
+    @Test
+    public void removedClearsStyleProperties() {
+        var fontColor = styleProperty(Label.class, "fontColor");
+        fontColor.value = "red";
+        var checker = new ReferenceChecker(jsonData, atlasData);
+        assertEquals(1, checker.countReferences(ResourceType.COLOR, "red"));
+        
+        var report = checker.removed(ResourceType.COLOR, "red");
+        assertEquals(1, report.size);
+        assertNull(fontColor.value);
+        assertEquals(0, checker.countReferences(ResourceType.COLOR, "red"));
+    }
+    
+    @Test
+    public void removedSkipsChangedProperties() {
+        var fontColor = styleProperty(Label.class, "fontColor");
+        fontColor.value = "red";
+        var checker = new ReferenceChecker(jsonData, atlasData);
+        
+        //changed after the checker indexed it
+        fontColor.value = "blue";
+        var report = checker.removed(ResourceType.COLOR, "red");
+        assertEquals(0, report.size);
+        assertEquals("blue", fontColor.value);
+    }
+    
+    @Test
+    public void renamedUpdatesStyleAndCustomProperties() {
+        var fontColor = styleProperty(Label.class, "fontColor");
+        fontColor.value = "red";
+        var customProperty = customColorProperty("red");
+        var checker = new ReferenceChecker(jsonData, atlasData);
+        assertEquals(2, checker.countReferences(ResourceType.COLOR, "red"));
+        
+        checker.renamed(ResourceType.COLOR, "red", "crimson");
+        assertEquals("crimson", fontColor.value);
+        assertEquals("crimson", customProperty.getValue());
+        assertEquals(0, checker.countReferences(ResourceType.COLOR, "red"));
+        assertEquals(2, checker.countReferences(ResourceType.COLOR, "crimson"));
+    }
+    
+    @Test
+    public void checkCreatesCustomDrawableForMissingStyleDrawable() {
+        var up = styleProperty(Button.class, "up");
+        up.value = "missing";
+        
+        var report = new ReferenceChecker(jsonData, atlasData).check();
+        assertEquals(1, report.size);
+        assertEquals("missing", up.value);
+        assertEquals(1, atlasData.getDrawables().size);
+        assertEquals("missing", atlasData.getDrawables().first().name);
+        assertEquals(DrawableType.CUSTOM, atlasData.getDrawables().first().type);
+    }
+    
+    @Test
+    public void checkClearsMissingColors() {
+        var fontColor = styleProperty(Label.class, "fontColor");
+        fontColor.value = "missing";
+        var customProperty = customColorProperty("red");
+        
+        var report = new ReferenceChecker(jsonData, atlasData).check();
+        assertEquals(1, report.size);
+        assertNull(fontColor.value);
+        assertEquals("red", customProperty.getValue());
+    }
+    
+    @Test
+    public void getReferencingPropertiesReturnsBothKinds() {
+        var fontColor = styleProperty(Label.class, "fontColor");
+        fontColor.value = "red";
+        var customProperty = customColorProperty("red");
+        
+        var properties = new ReferenceChecker(jsonData, atlasData).getReferencingProperties(ResourceType.COLOR, "red");
+        assertEquals(2, properties.size);
+        assertTrue(properties.contains(fontColor, true));
+        assertTrue(properties.contains(customProperty, true));
+    }
+}
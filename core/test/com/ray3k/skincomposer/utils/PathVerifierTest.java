@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2020 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class PathVerifierTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void existsMatchesFileSystem() throws IOException {
+        var present = new FileHandle(folder.newFile("present.png"));
+        var missing = new FileHandle(new File(folder.getRoot(), "missing.png"));
+        var verifier = new PathVerifier();
+        
+        assertTrue(verifier.exists(present));
+        assertFalse(verifier.exists(missing));
+        assertFalse(verifier.exists(null));
+    }
+    
+    @Test
+    public void listingIsCachedPerInstance() throws IOException {
+        var file = new FileHandle(folder.newFile("a.png"));
+        folder.newFile("b.png");
+        var verifier = new PathVerifier();
+        assertTrue(verifier.exists(file));
+        
+        file.delete();
+        assertTrue(verifier.exists(file));
+        assertFalse(new PathVerifier().exists(file));
+    }
+    
+    @Test
+    public void missingFolderDoesNotExist() {
+        var file = new FileHandle(new File(folder.getRoot(), "missing/a.png"));
+        assertFalse(new PathVerifier().exists(file));
+    }
+    
+    @Test
+    public void indexFolderKeepsClosestFile() throws IOException {
+        var top = new FileHandle(folder.newFile("skin.png"));
+        var sub = new FileHandle(folder.newFolder("sub"));
+        sub.child("skin.png").writeString("nested", false);
+        sub.child("other.png").writeString("other", false);
+        
+        var index = PathVerifier.indexFolder(new FileHandle(folder.getRoot()));
+        assertEquals(2, index.size);
+        assertEquals(top.file().getAbsoluteFile(), index.get("skin.png").file().getAbsoluteFile());
+        assertEquals(sub.child("other.png").file().getAbsoluteFile(), index.get("other.png").file().getAbsoluteFile());
+    }
+}